@@ -0,0 +1,98 @@
+package com.scalefocus.blogapplication.benchmark;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.model.BlogPost;
+import com.scalefocus.blogapplication.model.Tag;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic posts and tags shared by the benchmarks, so results are comparable between runs.
+ */
+final class BenchmarkData {
+
+    static final int TAG_POOL = 50;
+    /**
+     * Keeps generated posts in the size range of the seed data.
+     */
+    private static final int MAX_CONTENT = 255;
+    private static final long SEED = 42;
+    private static final String WORDS = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod "
+            + "tempor incididunt ut labore et dolore magna aliqua ";
+
+    private BenchmarkData() {
+    }
+
+    static String tagName(int index) {
+        return "tag-" + (index % TAG_POOL);
+    }
+
+    static Set<TagDto> tagDtos(Random random, int count) {
+        Set<TagDto> tags = new HashSet<>();
+        int first = random.nextInt(TAG_POOL);
+        for (int i = 0; i < count; i++) {
+            tags.add(TagDto.builder().name(tagName(first + i)).build());
+        }
+        return tags;
+    }
+
+    static BlogPostDto postDto(Random random, String prefix, int index, int tagCount) {
+        return BlogPostDto.builder()
+                .title(prefix + " post " + index)
+                .content(content(random))
+                .tags(tagDtos(random, tagCount))
+                .build();
+    }
+
+    static List<BlogPostDto> postDtos(String prefix, int count, int tagCount) {
+        Random random = new Random(SEED);
+        List<BlogPostDto> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            posts.add(postDto(random, prefix, i, tagCount));
+        }
+        return posts;
+    }
+
+    static List<BlogPost> posts(int count, int tagCount) {
+        Random random = new Random(SEED);
+        List<Tag> tags = new ArrayList<>(TAG_POOL);
+        for (int i = 0; i < TAG_POOL; i++) {
+            Tag tag = new Tag();
+            tag.setId((long) i + 1);
+            tag.setVersion(0L);
+            tag.setName(tagName(i));
+            tags.add(tag);
+        }
+        List<BlogPost> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BlogPost post = new BlogPost();
+            post.setId((long) i + 1);
+            post.setVersion(0L);
+            post.setTitle("Benchmark post " + i);
+            post.setContent(content(random));
+            Set<Tag> postTags = new HashSet<>();
+            int first = random.nextInt(TAG_POOL);
+            for (int t = 0; t < tagCount; t++) {
+                postTags.add(tags.get((first + t) % TAG_POOL));
+            }
+            post.setTags(postTags);
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    private static String content(Random random) {
+        int length = 40 + random.nextInt(MAX_CONTENT - 40);
+        StringBuilder content = new StringBuilder(length + WORDS.length());
+        while (content.length() < length) {
+            int start = random.nextInt(WORDS.length() / 2);
+            content.append(WORDS, start, WORDS.length());
+        }
+        return content.substring(0, length);
+    }
+}
@@ -0,0 +1,91 @@
+package com.scalefocus.blogapplication.benchmark;
+
+import com.scalefocus.blogapplication.BlogApplication;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.CursorPage;
+import com.scalefocus.blogapplication.service.BlogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service and repository paths against an in-memory H2 database seeded with {@code posts} posts.
+ * The dataset size can be changed with {@code -p posts=N}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogServiceBenchmark {
+
+    @Param({"10000"})
+    public int posts;
+
+    @Param({"0", "1", "5", "20"})
+    public int tagsPerPost;
+
+    @Param({"20"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private BlogService blogService;
+    private Random random;
+    private int created;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(BlogApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN", "blog.search.index-dir=target/jmh-search-index")
+                .run();
+        blogService = context.getBean(BlogService.class);
+        blogService.createBlogs(BenchmarkData.postDtos("Seed", posts, tagsPerPost).iterator());
+        random = new Random(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public BlogPostDto createBlog() {
+        return blogService.createBlog(BenchmarkData.postDto(random, "Created", created++, tagsPerPost));
+    }
+
+    /**
+     * Walks the keyset-paginated listing page by page, starting over after the last page.
+     */
+    @Benchmark
+    public CursorPage<BlogPostDto> getBlogs() {
+        CursorPage<BlogPostDto> page = blogService.getBlogs(cursor, pageSize);
+        cursor = page.getNextCursor();
+        return page;
+    }
+
+    @Benchmark
+    public List<BlogPostDto> getBlogsByTag() {
+        return blogService.getBlogsByTag(BenchmarkData.tagName(random.nextInt(BenchmarkData.TAG_POOL)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.scalefocus.blogapplication.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a page of posts, the last step of every list response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int listSize;
+
+    @Param({"0", "5"})
+    public int tagsPerPost;
+
+    private ObjectWriter writer;
+    private List<BlogPostDto> posts;
+
+    @Setup
+    public void setUp() {
+        writer = JsonMapper.builder().findAndAddModules().build().writer();
+        posts = BenchmarkData.postDtos("Json", listSize, tagsPerPost);
+    }
+
+    @Benchmark
+    public byte[] writeBlogPostList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(posts);
+    }
+}
@@ -0,0 +1,89 @@
+package com.scalefocus.blogapplication.benchmark;
+
+import com.scalefocus.blogapplication.config.SummaryProperties;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.mapper.BlogPostMapper;
+import com.scalefocus.blogapplication.mapper.TagMapper;
+import com.scalefocus.blogapplication.model.BlogPost;
+import com.scalefocus.blogapplication.model.Tag;
+import com.scalefocus.blogapplication.service.SummaryGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions used on every read path, plus the summary computed on every write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "100"})
+    public int listSize;
+
+    @Param({"0", "5"})
+    public int tagsPerPost;
+
+    private final BlogPostMapper blogPostMapper = BlogPostMapper.INSTANCE;
+    private final TagMapper tagMapper = TagMapper.INSTANCE;
+    private final SummaryGenerator summaryGenerator = new SummaryGenerator(new SummaryProperties());
+    private List<BlogPost> posts;
+    private BlogPost post;
+    private Tag tag;
+    private TagDto tagDto;
+
+    @Setup
+    public void setUp() {
+        posts = BenchmarkData.posts(listSize, tagsPerPost);
+        post = posts.get(0);
+        tag = BenchmarkData.posts(1, 1).get(0).getTags().iterator().next();
+        tagDto = tagMapper.toDto(tag);
+    }
+
+    @Benchmark
+    public BlogPostDto toDto() {
+        return blogPostMapper.toDto(post);
+    }
+
+    @Benchmark
+    public List<BlogPostDto> toDtoList() {
+        return blogPostMapper.toDtoList(posts);
+    }
+
+    @Benchmark
+    public BlogPostSummaryDto toSummaryDto() {
+        return blogPostMapper.toSummaryDto(post);
+    }
+
+    @Benchmark
+    public String toSummary() {
+        return summaryGenerator.summarize(post.getContent());
+    }
+
+    @Benchmark
+    public TagDto tagToDto() {
+        return tagMapper.toDto(tag);
+    }
+
+    @Benchmark
+    public Tag tagToEntity() {
+        return tagMapper.toEntity(tagDto);
+    }
+}
@@ -0,0 +1,279 @@
+package com.scalefocus.blogapplication.changefeed;
+
+import com.scalefocus.blogapplication.config.ChangeFeedProperties;
+import com.scalefocus.blogapplication.dto.BlogChangeDto;
+import com.scalefocus.blogapplication.model.BlogChange;
+import com.scalefocus.blogapplication.repository.BlogChangeRepository;
+import com.scalefocus.blogapplication.sharding.ShardDataSources;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams committed post changes to subscribers of {@code /api/blogs/changes} as server-sent events,
+ * with the change log id as event id and the change type as event name.
+ * <p>
+ * Subscriptions are asynchronous requests, so an idle subscriber holds a connection but no thread. Each
+ * subscriber has a bounded buffer that {@link #publish} only appends to; a small pool of sender threads
+ * drains the buffers of subscribers that have something to send, so a slow client ties up at most one
+ * sender and never the publisher. A full buffer is handled as {@code blog.change-feed.overflow} says.
+ * <p>
+ * A client that reconnects with {@code Last-Event-ID} is first sent the later changes from the change log,
+ * while live changes collect in its buffer; changes it has already been sent are skipped.
+ */
+@Component
+public class ChangeFeed implements DisposableBean {
+
+    static final String SUBSCRIBERS_METRIC = "blog.change-feed.subscribers";
+    static final String OVERFLOW_METRIC = "blog.change-feed.overflows";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final ChangeFeedProperties properties;
+    private final BlogChangeRepository blogChangeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter overflows;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    public ChangeFeed(ChangeFeedProperties properties, BlogChangeRepository blogChangeRepository,
+                      PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                      MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.blogChangeRepository = blogChangeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        Gauge.builder(SUBSCRIBERS_METRIC, subscribers, Set::size)
+                .description("Open change feed subscriptions")
+                .register(meterRegistry);
+        this.overflows = Counter.builder(OVERFLOW_METRIC)
+                .description("Changes that did not fit into a subscriber's buffer")
+                .tag("policy", properties.getOverflow().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        if (properties.isEnabled()) {
+            AtomicInteger senderCount = new AtomicInteger();
+            this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "change-feed-sender-" + senderCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "change-feed-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = properties.getHeartbeatInterval().toMillis();
+            this.heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(Subscriber::heartbeat),
+                    intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.senders = null;
+            this.heartbeats = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Opens a subscription to the changes committed from now on, preceded by those logged after
+     * {@code lastEventId} if it is given.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("The change feed is disabled");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        try {
+            // held until the request goes async, then written with the headers so the client sees the stream open
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Subscriber subscriber = new Subscriber(emitter, lastEventId);
+        subscribers.add(subscriber);
+        if (lastEventId != null) {
+            senders.execute(subscriber::drain);
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Appends logged changes, in id order, to the buffer of every subscriber.
+     */
+    void publish(List<BlogChangeDto> changes) {
+        for (Subscriber subscriber : subscribers) {
+            changes.forEach(subscriber::offer);
+        }
+    }
+
+    static BlogChangeDto toDto(BlogChange change) {
+        return new BlogChangeDto(change.getId(), change.getType(), change.getPostId(), change.getPostVersion(),
+                change.getTagName(), change.getOccurredAt());
+    }
+
+    @Override
+    public void destroy() {
+        if (senders != null) {
+            heartbeats.shutdownNow();
+            senders.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<BlogChangeDto> buffer = new ArrayDeque<>();
+        private Long resumeAfter;
+        private long lastSentId;
+        private boolean scheduled;
+        private boolean heartbeatDue;
+        private boolean overflowed;
+
+        private Subscriber(SseEmitter emitter, Long resumeAfter) {
+            this.emitter = emitter;
+            this.resumeAfter = resumeAfter;
+            this.lastSentId = resumeAfter == null ? 0 : resumeAfter;
+            // a resuming subscriber is drained right away, live changes wait behind the replay
+            this.scheduled = resumeAfter != null;
+            emitter.onCompletion(() -> subscribers.remove(this));
+            emitter.onTimeout(emitter::complete);
+            emitter.onError(error -> subscribers.remove(this));
+        }
+
+        private void offer(BlogChangeDto change) {
+            synchronized (this) {
+                if (overflowed) {
+                    return;
+                }
+                if (buffer.size() >= properties.getBufferSize()) {
+                    overflows.increment();
+                    if (properties.getOverflow() == ChangeFeedProperties.Overflow.DISCONNECT) {
+                        overflowed = true;
+                        buffer.clear();
+                    } else {
+                        buffer.poll();
+                    }
+                }
+                if (!overflowed) {
+                    buffer.add(change);
+                }
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        /**
+         * Sends what is due, on a sender thread. Only one drain runs per subscriber at a time, and only
+         * drains touch the emitter, so a publisher never waits for a client.
+         */
+        private void drain() {
+            try {
+                if (resumeAfter != null) {
+                    replay();
+                }
+                while (true) {
+                    BlogChangeDto change;
+                    boolean heartbeat;
+                    synchronized (this) {
+                        if (overflowed) {
+                            LOGGER.info("Closing change feed subscription whose buffer of {} changes overflowed",
+                                    properties.getBufferSize());
+                            subscribers.remove(this);
+                            emitter.complete();
+                            return;
+                        }
+                        change = buffer.poll();
+                        heartbeat = heartbeatDue;
+                        heartbeatDue = false;
+                        if (change == null && !heartbeat) {
+                            scheduled = false;
+                            return;
+                        }
+                    }
+                    if (heartbeat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    if (change != null) {
+                        send(change);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Change feed subscriber disconnected", e);
+                subscribers.remove(this);
+                emitter.complete();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Closing change feed subscription after a failure", e);
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void replay() throws IOException {
+            int batchSize = properties.getReplayBatchSize();
+            List<BlogChange> batch;
+            do {
+                long after = resumeAfter;
+                batch = shardRouter.onShard(ShardDataSources.FIRST, () -> readOnlyTransaction.execute(status ->
+                        blogChangeRepository.findByIdGreaterThanOrderById(after, Limit.of(batchSize))));
+                for (BlogChange change : batch) {
+                    send(toDto(change));
+                    resumeAfter = change.getId();
+                }
+            } while (batch.size() == batchSize);
+            resumeAfter = null;
+        }
+
+        private void send(BlogChangeDto change) throws IOException {
+            if (change.getId() <= lastSentId) {
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(change.getId().toString())
+                    .name(change.getType().name().toLowerCase(Locale.ROOT))
+                    .data(change, MediaType.APPLICATION_JSON));
+            lastSentId = change.getId();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.scalefocus.blogapplication.changefeed;
+
+import com.scalefocus.blogapplication.config.ChangeFeedProperties;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import com.scalefocus.blogapplication.model.BlogChange;
+import com.scalefocus.blogapplication.repository.BlogChangeRepository;
+import com.scalefocus.blogapplication.sharding.ShardDataSources;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends committed {@link BlogPostChangedEvent}s to the change log and hands them to the
+ * {@link ChangeFeed}, active with {@code blog.change-feed.enabled}.
+ * <p>
+ * Events are queued after commit and written by a single thread in batches, one transaction per batch,
+ * so ids are assigned, and changes streamed, in one order that a resuming client can rely on. The log
+ * lives in the primary database, the first shard when sharding is enabled. It is written after the post
+ * commits, so a crash in between loses that change from the feed. Changes older than
+ * {@code blog.change-feed.retention} are purged by the same thread.
+ */
+@Component
+public class ChangeLogWriter implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeLogWriter.class);
+    private static final int BATCH_SIZE = 500;
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final ChangeFeedProperties properties;
+    private final BlogChangeRepository blogChangeRepository;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transaction;
+    private final ShardRouter shardRouter;
+    private final BlockingQueue<BlogChange> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private Instant lastPurge = Instant.EPOCH;
+
+    public ChangeLogWriter(ChangeFeedProperties properties, BlogChangeRepository blogChangeRepository,
+                           ChangeFeed changeFeed, PlatformTransactionManager transactionManager,
+                           ShardRouter shardRouter) {
+        this.properties = properties;
+        this.blogChangeRepository = blogChangeRepository;
+        this.changeFeed = changeFeed;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        if (properties.isEnabled()) {
+            this.writer = new Thread(this::run, "change-log-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.writer = null;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBlogPostChanged(BlogPostChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        BlogChange change = new BlogChange();
+        change.setType(event.getType());
+        change.setPostId(event.getPostId());
+        change.setPostVersion(event.getPost() == null ? null : event.getPost().getVersion());
+        change.setTagName(event.getTagName());
+        change.setOccurredAt(Instant.now());
+        queue.add(change);
+    }
+
+    private void run() {
+        List<BlogChange> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                BlogChange first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    write(batch);
+                    batch.clear();
+                }
+                purgeIfDue();
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                LOGGER.error("Writing {} changes to the change log failed, they are not streamed", batch.size(), e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<BlogChange> batch) {
+        List<BlogChange> saved = shardRouter.onShard(ShardDataSources.FIRST, () -> transaction.execute(status ->
+                blogChangeRepository.saveAll(batch)));
+        changeFeed.publish(saved.stream().map(ChangeFeed::toDto).toList());
+    }
+
+    private void purgeIfDue() {
+        Instant now = Instant.now();
+        if (lastPurge.plus(PURGE_INTERVAL).isAfter(now)) {
+            return;
+        }
+        lastPurge = now;
+        int purged = shardRouter.onShard(ShardDataSources.FIRST, () -> transaction.execute(status ->
+                blogChangeRepository.deleteOccurredBefore(now.minus(properties.getRetention()))));
+        if (purged > 0) {
+            LOGGER.info("Purged {} changes older than {} from the change log", purged, properties.getRetention());
+        }
+    }
+
+    /**
+     * Writes out the changes still queued before the database goes away.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer != null) {
+            running = false;
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+}
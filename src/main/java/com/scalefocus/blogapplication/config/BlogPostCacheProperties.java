@@ -0,0 +1,25 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blog.post-cache")
+public class BlogPostCacheProperties {
+    /**
+     * Maximum number of post snapshots kept in memory.
+     */
+    private long maximumSize = 10_000;
+    /**
+     * Upper bound on how long a snapshot is served, as a safety net behind event based invalidation.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    /**
+     * Snapshots loaded this soon after a change to the post are returned but not cached. Reads may be
+     * served by a lagging replica, which could otherwise put the state from before the change back
+     * into the cache until {@link #expireAfterWrite}. Required with the read replica.
+     */
+    private Duration notCachedAfterChange = Duration.ZERO;
+}
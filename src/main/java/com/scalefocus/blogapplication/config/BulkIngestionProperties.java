@@ -0,0 +1,14 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blog.bulk")
+public class BulkIngestionProperties {
+    /**
+     * Number of posts persisted per transaction by the batch endpoint. Should be a multiple of
+     * {@code spring.jpa.properties.hibernate.jdbc.batch_size}.
+     */
+    private int chunkSize = 500;
+}
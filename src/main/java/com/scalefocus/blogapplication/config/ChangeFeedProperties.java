@@ -0,0 +1,55 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blog.change-feed")
+public class ChangeFeedProperties {
+    /**
+     * Record every committed post change in the change log and stream it from /api/blogs/changes.
+     */
+    private boolean enabled = false;
+    /**
+     * Changes held per subscriber while they wait to be sent.
+     */
+    private int bufferSize = 256;
+    /**
+     * What happens to a subscriber whose buffer is full.
+     */
+    private Overflow overflow = Overflow.DISCONNECT;
+    /**
+     * Threads writing to subscribers. Idle subscribers hold no thread.
+     */
+    private int senderThreads = 4;
+    /**
+     * How often a comment is sent to every subscriber, which keeps proxies from closing idle
+     * connections and detects clients that went away.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+    /**
+     * How long a subscription lasts before the client has to reconnect with its Last-Event-ID.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+    /**
+     * Changes read from the change log per query when a client resumes.
+     */
+    private int replayBatchSize = 500;
+    /**
+     * How long changes are kept in the change log, and so how far back a client can resume.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    public enum Overflow {
+        /**
+         * Close the stream; the client reconnects and catches up from the change log without a gap.
+         */
+        DISCONNECT,
+        /**
+         * Discard the oldest buffered change; the client sees a gap in the event ids.
+         */
+        DROP_OLDEST
+    }
+}
@@ -0,0 +1,48 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blog.content.compression")
+public class ContentCompressionProperties {
+
+    public enum Algorithm {
+        /**
+         * DEFLATE in a zlib frame, the smallest framing.
+         */
+        DEFLATE,
+        /**
+         * DEFLATE in a GZIP frame, with a CRC over the text.
+         */
+        GZIP
+    }
+
+    /**
+     * Compress post content on write. Stored values are self-describing, so rows written in either mode
+     * stay readable when this is switched.
+     */
+    private boolean enabled = false;
+    private Algorithm algorithm = Algorithm.DEFLATE;
+    /**
+     * Compression level from 1 (fastest) to 9 (smallest).
+     */
+    private int level = 6;
+    /**
+     * Content shorter than this many UTF-8 bytes is stored as is.
+     */
+    private int threshold = 1_024;
+    private final Migration migration = new Migration();
+
+    @Data
+    public static class Migration {
+        /**
+         * Compress already stored posts in the background once the application has started.
+         */
+        private boolean enabled = false;
+        /**
+         * Posts rewritten per transaction.
+         */
+        private int batchSize = 500;
+    }
+}
@@ -0,0 +1,60 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blog.content.log")
+public class ContentLogProperties {
+    /**
+     * Write post content to memory-mapped log files, keeping only a reference in the row. Content already
+     * in the log stays readable when this is switched off, as long as the directory is kept.
+     */
+    private boolean enabled = false;
+    /**
+     * Directory holding the segment files. Local to one application instance.
+     */
+    private Path directory = Path.of("data", "content-log");
+    /**
+     * Size of a segment file. Content larger than this gets a segment of its own.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    /**
+     * Content shorter than this many UTF-8 bytes stays in the row.
+     */
+    private int threshold = 1_024;
+    /**
+     * Flush every appended record to disk before the row referring to it can commit.
+     */
+    private boolean forceOnAppend = true;
+    /**
+     * Check the checksum of a record on every read, not only at startup.
+     */
+    private boolean verifyOnRead = true;
+    private final Compaction compaction = new Compaction();
+
+    @Data
+    public static class Compaction {
+        /**
+         * How often segments are compacted; zero turns compaction off.
+         */
+        private Duration interval = Duration.ofMinutes(10);
+        /**
+         * Share of a segment no longer referenced by any post above which its live records are moved out.
+         */
+        private double garbageRatio = 0.5;
+        /**
+         * How long a segment must have been full before it is compacted, and how long an emptied segment
+         * is kept for reads that started before its records moved.
+         */
+        private Duration gracePeriod = Duration.ofMinutes(1);
+        /**
+         * Rows read and rewritten per transaction.
+         */
+        private int batchSize = 500;
+    }
+}
@@ -0,0 +1,47 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blog.dataset")
+public class DatasetProperties {
+    /**
+     * Number of posts to generate.
+     */
+    private int posts = 100_000;
+    /**
+     * Number of distinct tags. Tag popularity follows a Zipf distribution over this vocabulary.
+     */
+    private int tags = 5_000;
+    /**
+     * Seed for every random choice, so the same settings always produce the same content.
+     */
+    private long seed = 42;
+    /**
+     * Zipf exponent of tag popularity; higher values concentrate postings on fewer tags.
+     */
+    private double tagZipfExponent = 1.1;
+    /**
+     * Average number of tags per post (Poisson distributed, capped at {@link #maxTagsPerPost}).
+     */
+    private double meanTagsPerPost = 3;
+    private int maxTagsPerPost = 10;
+    /**
+     * Median and log-scale standard deviation of the log-normal content length in characters.
+     */
+    private int contentLengthMedian = 120;
+    private double contentLengthSigma = 0.6;
+    /**
+     * Upper bound for generated content length in characters.
+     */
+    private int maxContentLength = 256 * 1024;
+    /**
+     * Posts written per JDBC batch and transaction.
+     */
+    private int batchSize = 1_000;
+    /**
+     * Close the application once the dataset profile has generated the data.
+     */
+    private boolean exitOnCompletion = false;
+}
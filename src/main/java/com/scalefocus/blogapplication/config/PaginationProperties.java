@@ -0,0 +1,27 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blog.pagination")
+public class PaginationProperties {
+    /**
+     * Page size used when the client does not send {@code limit}.
+     */
+    private int defaultLimit = 20;
+    /**
+     * Upper bound for client supplied {@code limit} values.
+     */
+    private int maxLimit = 100;
+
+    public int resolve(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, maxLimit);
+    }
+}
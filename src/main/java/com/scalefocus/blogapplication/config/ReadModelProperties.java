@@ -0,0 +1,38 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blog.read-model")
+public class ReadModelProperties {
+    /**
+     * Keep every post in memory and serve single posts, pages, summaries and tag lists from there.
+     * Holds all content on the heap.
+     */
+    private boolean enabled = false;
+    /**
+     * How long a deleted post is kept from coming back, and a tag change for a post not seen yet is held,
+     * to cope with events of concurrent requests arriving out of commit order.
+     */
+    private Duration outOfOrderWindow = Duration.ofMinutes(1);
+    private final ConsistencyCheck consistencyCheck = new ConsistencyCheck();
+
+    @Data
+    public static class ConsistencyCheck {
+        /**
+         * How often the read model is compared with the database; zero turns the periodic check off.
+         */
+        private Duration interval = Duration.ZERO;
+        /**
+         * Reload posts found to differ from the database.
+         */
+        private boolean repair = true;
+        /**
+         * Post versions read from the database per query.
+         */
+        private int batchSize = 1_000;
+    }
+}
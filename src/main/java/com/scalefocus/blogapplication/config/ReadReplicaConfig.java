@@ -0,0 +1,83 @@
+package com.scalefocus.blogapplication.config;
+
+import com.scalefocus.blogapplication.datasource.PrimaryPinningFilter;
+import com.scalefocus.blogapplication.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary/replica routing, active with {@code blog.datasource.replica.enabled}.
+ * <p>
+ * The application's {@link DataSource} becomes a lazy proxy over a {@link ReadWriteRoutingDataSource}
+ * that chooses between a pool on {@code spring.datasource} and a pool on the replica. Hibernate is
+ * switched to release its connection after every transaction: with open-session-in-view it would
+ * otherwise keep the first connection of a request, and with it the first routing decision, for all
+ * later transactions of that request.
+ * <p>
+ * Startup fails unless {@code blog.post-cache.not-cached-after-change} is set, as the post cache would
+ * otherwise keep what a lagging replica returns right after another client's write.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "blog.datasource.replica", name = "enabled")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("blog.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReadReplicaProperties properties, BlogPostCacheProperties postCacheProperties) {
+        Duration notCachedAfterChange = postCacheProperties.getNotCachedAfterChange();
+        if (notCachedAfterChange.isZero() || notCachedAfterChange.isNegative()) {
+            // the pinning cookie only protects the writer; everyone else could cache what a lagging replica returns
+            throw new IllegalStateException("blog.post-cache.not-cached-after-change must be set to at least the "
+                    + "replica lag when blog.datasource.replica.enabled is set");
+        }
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public PrimaryPinningFilter primaryPinningFilter(ReadReplicaProperties properties) {
+        return new PrimaryPinningFilter(properties);
+    }
+}
@@ -0,0 +1,27 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection settings of the read replica. Pool settings are bound from
+ * {@code blog.datasource.replica.hikari.*}, like {@code spring.datasource.hikari.*} for the primary.
+ */
+@Data
+@ConfigurationProperties(prefix = "blog.datasource.replica")
+public class ReadReplicaProperties {
+    /**
+     * Send read-only transactions to the replica. Everything else keeps using {@code spring.datasource}.
+     */
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    /**
+     * How long a client reads from the primary after its own write. Should exceed the replication lag
+     * the replica normally runs at.
+     */
+    private Duration pinDuration = Duration.ofSeconds(5);
+}
@@ -0,0 +1,25 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blog.search")
+public class SearchProperties {
+    /**
+     * Directory holding the Lucene index.
+     */
+    private Path indexDir = Path.of("data", "search-index");
+    /**
+     * How often pending index changes are committed to disk. Changes are searchable immediately;
+     * this only bounds how much work a crash can lose.
+     */
+    private Duration commitInterval = Duration.ofSeconds(5);
+    /**
+     * Largest page size accepted by the search endpoint.
+     */
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,30 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "blog.second-level-cache")
+public class SecondLevelCacheProperties {
+    /**
+     * Hibernate cache regions by name. Every region referenced by an entity, collection or query hint
+     * must be listed here.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        /**
+         * Maximum number of entries kept in the region.
+         */
+        private long maximumSize = 10_000;
+        /**
+         * Entries are evicted this long after they were written, unbounded if not set.
+         */
+        private Duration expireAfterWrite;
+    }
+}
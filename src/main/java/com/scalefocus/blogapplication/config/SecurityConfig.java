@@ -1,5 +1,6 @@
 package com.scalefocus.blogapplication.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -16,7 +17,10 @@ public class SecurityConfig {
         http
                 .csrf(c -> c.disable())
                 .authorizeRequests(a -> a
+                        // streamed responses such as /api/blogs/changes end in an async or error dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/metrics", "/actuator/metrics/**", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(s -> s
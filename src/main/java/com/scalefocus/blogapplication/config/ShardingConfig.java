@@ -0,0 +1,142 @@
+package com.scalefocus.blogapplication.config;
+
+import com.scalefocus.blogapplication.model.BlogPost;
+import com.scalefocus.blogapplication.sharding.AssignableSequenceGenerator;
+import com.scalefocus.blogapplication.sharding.GlobalIdAllocator;
+import com.scalefocus.blogapplication.sharding.ShardContext;
+import com.scalefocus.blogapplication.sharding.ShardDataSources;
+import com.scalefocus.blogapplication.sharding.ShardMap;
+import com.scalefocus.blogapplication.sharding.ShardRebalancer;
+import com.scalefocus.blogapplication.sharding.ShardRoutingDataSource;
+import com.scalefocus.blogapplication.sharding.TitleRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharding of posts, active with {@code blog.sharding.enabled}.
+ * <p>
+ * The application's {@link DataSource} becomes a lazy proxy over a {@link ShardRoutingDataSource} across one
+ * pool per shard, and {@code ShardRouter} picks the shard for each piece of post data access. As with the
+ * read replica, Hibernate releases its connection after every transaction, so that an open-session-in-view
+ * session is not stuck with the shard of its first transaction. Post ids come from a {@link GlobalIdAllocator}
+ * and are kept by {@link AssignableSequenceGenerator}; titles are kept unique across shards by the
+ * {@link TitleRegistry}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "blog.sharding", name = "enabled")
+public class ShardingConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties dataSourceProperties, ShardingProperties properties,
+                                             Environment environment) {
+        if (environment.getProperty("blog.datasource.replica.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("Sharding cannot be combined with the read replica");
+        }
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        HikariDataSource first = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(first));
+        dataSources.add(first);
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            binder.bind("blog.sharding.hikari", Bindable.ofInstance(dataSource));
+            dataSources.add(dataSource);
+        }
+        for (int shard = 0; shard < dataSources.size(); shard++) {
+            dataSources.get(shard).setPoolName("shard-" + shard);
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardDataSources));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardingHibernateCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+            hibernateProperties.put(AssignableSequenceGenerator.ASSIGNED_IDS, true);
+        };
+    }
+
+    /**
+     * Depends on the entity manager factory so that the first shard's schema is in place, and creates the
+     * other shards' schemas first if asked to.
+     */
+    @Bean
+    public ShardMap shardMap(ShardDataSources shardDataSources, ShardingProperties properties,
+                             EntityManagerFactory entityManagerFactory) {
+        if (properties.isInitializeSchema()) {
+            for (int shard = ShardDataSources.FIRST + 1; shard < shardDataSources.count(); shard++) {
+                initializeSchema(entityManagerFactory, shardDataSources, shard);
+            }
+        }
+        return new ShardMap(shardDataSources, properties.getBuckets());
+    }
+
+    @Bean
+    public GlobalIdAllocator postIdAllocator(ShardDataSources shardDataSources, EntityManagerFactory entityManagerFactory) {
+        return new GlobalIdAllocator(shardDataSources.get(ShardDataSources.FIRST),
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect(),
+                BlogPost.ID_SEQUENCE, BlogPost.ID_ALLOCATION_SIZE);
+    }
+
+    @Bean
+    public TitleRegistry titleRegistry(ShardDataSources shardDataSources, ShardMap shardMap,
+                                       ShardingProperties properties) {
+        return new TitleRegistry(shardDataSources, shardMap, properties.getTitleReservationTimeout());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardMap shardMap, ShardDataSources shardDataSources,
+                                           ShardingProperties properties) {
+        return new ShardRebalancer(shardMap, shardDataSources, properties.getRebalance().getBatchSize());
+    }
+
+    private static void initializeSchema(EntityManagerFactory entityManagerFactory, ShardDataSources shards, int shard) {
+        try {
+            new JdbcTemplate(shards.get(shard)).queryForList("SELECT id FROM blog_posts WHERE 1 = 0");
+            return;
+        } catch (DataAccessException e) {
+            LOGGER.info("Creating schema on shard {}", shard);
+        }
+        ShardContext.on(shard, () -> {
+            entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true);
+            return null;
+        });
+    }
+}
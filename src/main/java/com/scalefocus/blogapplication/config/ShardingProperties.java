@@ -0,0 +1,61 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Horizontal sharding of {@code blog_posts} and {@code blog_post_tags}, see {@link ShardingConfig}. The first
+ * shard is {@code spring.datasource}; pool settings of the other shards are bound from
+ * {@code blog.sharding.hikari.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "blog.sharding")
+public class ShardingProperties {
+    /**
+     * Spread posts over {@code spring.datasource} and {@link #shards}. Cannot be combined with the read replica.
+     */
+    private boolean enabled = false;
+    /**
+     * Shards after the first one, numbered from 1 in the order listed.
+     */
+    private List<Shard> shards = new ArrayList<>();
+    /**
+     * Number of buckets post ids fall into. Buckets, not posts, are assigned to and moved between shards, so
+     * this bounds how finely posts can be spread. Fixed once the bucket map has been stored.
+     */
+    private int buckets = 64;
+    /**
+     * Create the mapped tables on shards that do not have them yet. Hibernate's own schema management only
+     * reaches the first shard.
+     */
+    private boolean initializeSchema = false;
+    /**
+     * Age after which a title reservation whose post does not carry the title can be taken over by another
+     * post. Must be longer than any transaction writing posts.
+     */
+    private Duration titleReservationTimeout = Duration.ofMinutes(5);
+    private Rebalance rebalance = new Rebalance();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    @Data
+    public static class Rebalance {
+        /**
+         * Posts copied per batch and transaction when a bucket moves.
+         */
+        private int batchSize = 500;
+        /**
+         * Stop the application once the {@code rebalance} profile has run.
+         */
+        private boolean exitOnCompletion = false;
+    }
+}
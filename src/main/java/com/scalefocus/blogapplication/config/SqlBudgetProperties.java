@@ -0,0 +1,36 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "blog.sql-budget")
+public class SqlBudgetProperties {
+    /**
+     * Count SQL statements, entity loads and collection initializations per API request.
+     */
+    private boolean enabled = true;
+    /**
+     * Add the counts to responses as {@code X-SQL-*} headers. Meant for non-production profiles.
+     */
+    private boolean exposeHeaders = false;
+    /**
+     * Statement budget for routes without an entry in {@link #routes}.
+     */
+    private long defaultStatements = 20;
+    /**
+     * Statement budgets by {@code METHOD:/route/{pattern}}, e.g. {@code GET:/api/blogs/{id}}.
+     */
+    private Map<String, Long> routes = new LinkedHashMap<>();
+    /**
+     * A single statement prepared at least this many times in one request is reported as a likely N+1.
+     */
+    private int repeatedStatementThreshold = 5;
+
+    public long budgetFor(String method, String route) {
+        return routes.getOrDefault(method + ":" + route, defaultStatements);
+    }
+}
@@ -0,0 +1,43 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blog.summary")
+public class SummaryProperties {
+
+    public enum Strategy {
+        /**
+         * Cut at the last whitespace that fits, falling back to {@link #CHARACTER} for a single long word.
+         */
+        WORD,
+        /**
+         * Cut after the last code point that fits.
+         */
+        CHARACTER
+    }
+
+    /**
+     * Maximum summary length in characters, ellipsis included. At most the size of the {@code summary} column.
+     */
+    private int length = 100;
+    private Strategy strategy = Strategy.WORD;
+    /**
+     * Appended when the content had to be shortened.
+     */
+    private String ellipsis = "…";
+    private final Backfill backfill = new Backfill();
+
+    @Data
+    public static class Backfill {
+        /**
+         * Fill in missing summaries in the background once the application has started.
+         */
+        private boolean enabled = true;
+        /**
+         * Posts summarized per transaction.
+         */
+        private int batchSize = 1_000;
+    }
+}
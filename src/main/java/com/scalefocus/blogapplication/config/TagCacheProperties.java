@@ -0,0 +1,23 @@
+package com.scalefocus.blogapplication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blog.tag-cache")
+public class TagCacheProperties {
+    /**
+     * Maximum number of tag names kept in memory.
+     */
+    private long maximumSize = 10_000;
+    /**
+     * Entries not read for this long are evicted.
+     */
+    private Duration expireAfterAccess = Duration.ofHours(1);
+    /**
+     * Load existing tags into the cache once the application has started.
+     */
+    private boolean warmUp = true;
+}
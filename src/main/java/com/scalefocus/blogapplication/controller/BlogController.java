@@ -1,25 +1,57 @@
 package com.scalefocus.blogapplication.controller;
 
+import com.scalefocus.blogapplication.changefeed.ChangeFeed;
 import com.scalefocus.blogapplication.dto.BlogPostDto;
 import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.BlogPostVersionDto;
+import com.scalefocus.blogapplication.dto.CursorPage;
 import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.search.IndexNotReadyException;
 import com.scalefocus.blogapplication.service.BlogService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/blogs")
 public class BlogController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final BlogService blogService;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeed changeFeed;
 
 
-    public BlogController(BlogService blogService) {
+    public BlogController(BlogService blogService, ObjectMapper objectMapper, ChangeFeed changeFeed) {
         this.blogService = blogService;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
     }
 
     @PostMapping
@@ -27,13 +59,70 @@ public class BlogController {
         return ResponseEntity.status(HttpStatus.CREATED).body(blogService.createBlog(blogDto));
     }
 
+    /**
+     * Accepts either a JSON array or newline-delimited JSON. Items are parsed lazily from the request
+     * body and handed to the service as they are read, so large uploads are never held in memory whole.
+     * Chunks persisted before a malformed item is reached stay committed.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> createBlogs(HttpServletRequest request) throws IOException {
+        try (MappingIterator<BlogPostDto> blogs = objectMapper.readerFor(BlogPostDto.class)
+                .readValues(request.getInputStream())) {
+            return ResponseEntity.ok(blogService.createBlogs(blogs));
+        }
+    }
+
+    /**
+     * The page's ETag is derived from the ids and versions of its posts, which are read before the posts
+     * themselves, so a matching {@code If-None-Match} is answered without loading any entity. While the
+     * read model is serving, both come from memory.
+     */
     @GetMapping
-    public ResponseEntity<?> getBlogs() {
-        List<BlogPostDto> blogs = blogService.getBlogs();
-        if (blogs.isEmpty()) {
+    public ResponseEntity<?> getBlogs(@RequestParam(required = false) String after,
+                                      @RequestParam(required = false) Integer limit,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CursorPage<BlogPostVersionDto> versions = blogService.getBlogVersions(after, limit);
+        if (versions.getItems().isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(blogs);
+        String etag = pageETag(versions);
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return pageResponse(blogService.loadBlogs(versions), etag);
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBlogs() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                blogService.exportBlogs(blog -> {
+                    try {
+                        writer.write(blog);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Server-sent events for every committed change to a post from now on. A client that reconnects
+     * with the {@code Last-Event-ID} it saw last first receives the changes it missed.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        if (!changeFeed.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(changeFeed.subscribe(lastEventId));
     }
 
     @DeleteMapping("/{id}")
@@ -42,22 +131,66 @@ public class BlogController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Conditional requests are checked against the version alone, so a client whose copy is current
+     * gets a 304 without the post being loaded, or without any query while the read model is serving.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBlog(@PathVariable Long id) {
+    public ResponseEntity<?> getBlog(@PathVariable Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Long version = blogService.getBlogVersion(id);
+            if (version == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (etagMatches(ifNoneMatch, etag(version))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version)).build();
+            }
+        }
         BlogPostDto blog = blogService.getBlog(id);
         if (blog == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(blog);
+        return ResponseEntity.ok().eTag(etag(blog.getVersion())).body(blog);
     }
 
+    /**
+     * The content alone as UTF-8 text. Content kept in the content log is written to the response
+     * straight from its memory-mapped segment.
+     */
+    @GetMapping(value = "/{id}/content", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> getContent(@PathVariable Long id) {
+        ByteBuffer content = blogService.getContent(id);
+        if (content == null) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            WritableByteChannel channel = Channels.newChannel(outputStream);
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(content.remaining())
+                .body(body);
+    }
+
+    /**
+     * An {@code If-Match} ETag takes precedence over a version in the body. Either one makes the update
+     * fail with 412 if the post has changed since that version was read.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateBlog(@PathVariable Long id, @RequestBody @Valid BlogPostDto blogDto) {
+    public ResponseEntity<?> updateBlog(@PathVariable Long id, @RequestBody @Valid BlogPostDto blogDto,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            blogDto.setVersion(ifMatch.trim().equals("*") ? null : parseETag(ifMatch, id));
+        }
         BlogPostDto updatedBlog = blogService.updateBlog(id, blogDto);
         if (updatedBlog == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(updatedBlog);
+        return ResponseEntity.ok().eTag(etag(updatedBlog.getVersion())).body(updatedBlog);
     }
 
     @PostMapping("/{id}/tag")
@@ -96,12 +229,126 @@ public class BlogController {
         return ResponseEntity.ok(blogs);
     }
 
+    /**
+     * Posts matching a boolean tag expression, e.g. {@code java AND (spring OR jakarta) NOT beginner}.
+     */
+    @GetMapping("/tags/query")
+    public ResponseEntity<?> queryBlogsByTags(@RequestParam("q") String query,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(required = false) Integer limit) {
+        CursorPage<BlogPostDto> blogs = blogService.queryBlogsByTags(query, after, limit);
+        if (blogs.getItems().isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return pageResponse(blogs);
+    }
+
     @GetMapping("/summarized")
-    public ResponseEntity<?> getSummarizedBlogs() {
-        List< BlogPostSummaryDto > blogs = blogService.getSummarizedBlogs();
-        if (blogs.isEmpty()) {
+    public ResponseEntity<?> getSummarizedBlogs(@RequestParam(required = false) String after,
+                                                @RequestParam(required = false) Integer limit) {
+        CursorPage<BlogPostSummaryDto> blogs = blogService.getSummarizedBlogs(after, limit);
+        if (blogs.getItems().isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(blogs);
+        return pageResponse(blogs);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchBlogs(@RequestParam("q") String query,
+                                         @RequestParam(required = false) Integer page,
+                                         @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(blogService.searchBlogs(query, page, size));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(IndexNotReadyException.class)
+    public ResponseEntity<?> handleIndexNotReady(IndexNotReadyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    /**
+     * On {@code PUT} the version is a precondition of the update, so losing the race is reported as 412.
+     * Concurrent tag changes to the same post are reported as 409.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLock(ObjectOptimisticLockingFailureException e, HttpServletRequest request) {
+        HttpStatus status = request.getMethod().equals("PUT") ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body("Blog was modified concurrently, reload it and retry");
+    }
+
+    @ExceptionHandler({JsonProcessingException.class, RuntimeJsonMappingException.class})
+    public ResponseEntity<?> handleMalformedJson(Exception e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * Keeps the body a plain JSON array and advertises the next page through the
+     * {@value #NEXT_CURSOR_HEADER} header and an RFC 8288 {@code Link} header.
+     */
+    private static ResponseEntity<?> pageResponse(CursorPage<?> page) {
+        return pageResponse(page, null);
+    }
+
+    private static ResponseEntity<?> pageResponse(CursorPage<?> page, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .build()
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static String pageETag(CursorPage<BlogPostVersionDto> versions) {
+        StringBuilder state = new StringBuilder();
+        versions.getItems().forEach(item -> state.append(item.getId()).append(':').append(item.getVersion()).append(','));
+        state.append(versions.hasNext());
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}: {@code W/} prefixes are ignored.
+     */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.replaceFirst("^W/", "").equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Strong comparison as required for {@code If-Match}: only a single, non-weak version ETag can ever
+     * match, anything else fails the precondition.
+     */
+    private static Long parseETag(String ifMatch, Long id) {
+        String trimmed = ifMatch.trim();
+        if (trimmed.length() > 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            try {
+                return Long.valueOf(trimmed.substring(1, trimmed.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to the failed precondition below
+            }
+        }
+        throw new ObjectOptimisticLockingFailureException(BlogPostDto.class, id);
     }
 }
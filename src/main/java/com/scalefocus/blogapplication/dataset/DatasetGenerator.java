@@ -0,0 +1,269 @@
+package com.scalefocus.blogapplication.dataset;
+
+import com.scalefocus.blogapplication.config.DatasetProperties;
+import com.scalefocus.blogapplication.readmodel.BlogReadModel;
+import com.scalefocus.blogapplication.search.BlogSearchIndex;
+import com.scalefocus.blogapplication.search.TagBitmapIndex;
+import com.scalefocus.blogapplication.service.SummaryGenerator;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import com.scalefocus.blogapplication.storage.ContentCodec;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Fills {@code blog_posts}, {@code tags} and {@code blog_post_tags} with synthetic data for
+ * benchmarking, writing JDBC batches directly instead of going through {@code BlogService}.
+ * <p>
+ * Tag popularity is Zipfian and content length log-normal; everything is derived from
+ * {@link DatasetProperties#getSeed()}. Ids are reserved up front by moving the sequences past the
+ * generated range, so the application can keep inserting after the generator has run. The reservation is
+ * not atomic, see {@link #reserveIds}, so nothing else may write posts or tags while it runs. Because the
+ * inserts bypass Hibernate, the second-level cache is evicted and the tag bitmap, search index and read
+ * model are rebuilt once the data is in.
+ * <p>
+ * With sharding, ids are reserved on the first shard, tags are written to every shard and each post goes
+ * to the shard of its id.
+ */
+@Component
+public class DatasetGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    static final String TAG_PREFIX = "topic-";
+    private static final String POST_SEQUENCE = "blog_posts_seq";
+    private static final String TAG_SEQUENCE = "tags_seq";
+    /**
+     * Matches {@code allocationSize} of both sequence generators. Hibernate's pooled optimizer hands out
+     * the {@code increment} ids below each sequence value, so a restart must leave that much headroom.
+     */
+    private static final int SEQUENCE_INCREMENT = 50;
+    private static final String[] WORDS = ("the a performance latency cache index query post tag blog java spring "
+            + "hibernate database throughput memory thread lock batch stream vector search page cursor summary "
+            + "content title version snapshot event listener request response server client network disk "
+            + "benchmark profile heap garbage collector compile inline loop array map set list tree hash").split(" ");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final SessionFactoryImplementor sessionFactory;
+    private final TagBitmapIndex tagBitmapIndex;
+    private final BlogSearchIndex blogSearchIndex;
+    private final SummaryGenerator summaryGenerator;
+    private final ContentCodec contentCodec;
+    private final ShardRouter shardRouter;
+    private final BlogReadModel readModel;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            EntityManagerFactory entityManagerFactory, TagBitmapIndex tagBitmapIndex,
+                            BlogSearchIndex blogSearchIndex, SummaryGenerator summaryGenerator,
+                            ContentCodec contentCodec, ShardRouter shardRouter, BlogReadModel readModel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.tagBitmapIndex = tagBitmapIndex;
+        this.blogSearchIndex = blogSearchIndex;
+        this.summaryGenerator = summaryGenerator;
+        this.contentCodec = contentCodec;
+        this.shardRouter = shardRouter;
+        this.readModel = readModel;
+    }
+
+    public Summary generate(DatasetProperties properties) {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+        long[] tagIds = ensureTags(properties.getTags());
+        ZipfSampler tagPopularity = new ZipfSampler(tagIds.length, properties.getTagZipfExponent());
+
+        long firstPostId = reserveIds(POST_SEQUENCE, properties.getPosts());
+        long postings = 0;
+        List<Object[]> posts = new ArrayList<>(properties.getBatchSize());
+        List<Object[]> postTags = new ArrayList<>(properties.getBatchSize() * 4);
+        for (int i = 0; i < properties.getPosts(); i++) {
+            long id = firstPostId + i;
+            String content = content(random, properties);
+            posts.add(new Object[]{id, 0L, "Synthetic post " + id, contentCodec.encode(content),
+                    summaryGenerator.summarize(content)});
+            for (int rank : tagRanks(random, tagPopularity, properties)) {
+                postTags.add(new Object[]{id, tagIds[rank]});
+            }
+            if (posts.size() == properties.getBatchSize() || i == properties.getPosts() - 1) {
+                postings += postTags.size();
+                writeBatch(posts, postTags);
+                posts.clear();
+                postTags.clear();
+                if ((i + 1) % (properties.getBatchSize() * 100) == 0) {
+                    LOGGER.info("Generated {} of {} posts", i + 1, properties.getPosts());
+                }
+            }
+        }
+
+        refreshDerivedState();
+        Summary summary = new Summary(properties.getPosts(), tagIds.length, postings,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOGGER.info("Generated {} posts with {} postings over {} tags in {} ms", summary.posts(), summary.postings(),
+                summary.tags(), summary.millis());
+        return summary;
+    }
+
+    /**
+     * Returns the ids of tags {@code topic-00000..} by popularity rank, inserting the missing ones.
+     */
+    private long[] ensureTags(int count) {
+        Map<String, Long> existing = new HashMap<>();
+        RowCallbackHandler collect = row -> existing.put(row.getString("name"), row.getLong("id"));
+        jdbcTemplate.query("select id, name from tags where name like ?", collect, TAG_PREFIX + "%");
+        long[] ids = new long[count];
+        List<Object[]> missing = new ArrayList<>();
+        for (int rank = 0; rank < count; rank++) {
+            String name = tagName(rank);
+            Long id = existing.get(name);
+            if (id == null) {
+                missing.add(new Object[]{name});
+            } else {
+                ids[rank] = id;
+            }
+        }
+        if (!missing.isEmpty()) {
+            long nextId = reserveIds(TAG_SEQUENCE, missing.size());
+            for (int rank = 0; rank < count; rank++) {
+                if (ids[rank] == 0) {
+                    ids[rank] = nextId++;
+                }
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int rank = 0; rank < count; rank++) {
+            rows.add(new Object[]{ids[rank], 0L, tagName(rank)});
+        }
+        shardRouter.forEachShard(() -> insertMissingTags(rows));
+        return ids;
+    }
+
+    private void insertMissingTags(List<Object[]> rows) {
+        Set<Long> present = new HashSet<>(jdbcTemplate.queryForList("select id from tags where name like ?",
+                Long.class, TAG_PREFIX + "%"));
+        List<Object[]> missing = rows.stream().filter(row -> !present.contains((Long) row[0])).toList();
+        if (!missing.isEmpty()) {
+            transaction.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("insert into tags (id, version, name) values (?, ?, ?)", missing));
+        }
+    }
+
+    static String tagName(int rank) {
+        return String.format("%s%05d", TAG_PREFIX, rank);
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids and returns the first. The sequence is restarted past the
+     * reserved range before any row is written, so inserts made afterwards do not collide with it. Reading
+     * the sequence and restarting it are two statements, though: a block fetched by Hibernate's pooled
+     * optimizer in between overlaps the range, so this must run with no concurrent writers.
+     */
+    private long reserveIds(String sequence, int count) {
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        long current = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        long first = current + 1;
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (first + count + SEQUENCE_INCREMENT));
+        return first;
+    }
+
+    private void writeBatch(List<Object[]> posts, List<Object[]> postTags) {
+        Map<Integer, List<Object[]>> postsByShard = byShard(posts);
+        Map<Integer, List<Object[]>> postTagsByShard = byShard(postTags);
+        postsByShard.forEach((shard, shardPosts) -> shardRouter.onShard(shard, () -> {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("insert into blog_posts (id, version, title, content, summary) values (?, ?, ?, ?, ?)", shardPosts);
+                jdbcTemplate.batchUpdate("insert into blog_post_tags (blog_post_id, tag_id) values (?, ?)",
+                        postTagsByShard.getOrDefault(shard, List.of()));
+            });
+            return null;
+        }));
+    }
+
+    /**
+     * Groups rows whose first column is a post id by the shard of that id.
+     */
+    private Map<Integer, List<Object[]>> byShard(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.groupingBy(row -> shardRouter.shardOf((Long) row[0]),
+                TreeMap::new, Collectors.toList()));
+    }
+
+    private static Set<Integer> tagRanks(SplittableRandom random, ZipfSampler popularity, DatasetProperties properties) {
+        int count = Math.min(poisson(random, properties.getMeanTagsPerPost()),
+                Math.min(properties.getMaxTagsPerPost(), properties.getTags()));
+        Set<Integer> ranks = new LinkedHashSet<>();
+        while (ranks.size() < count) {
+            ranks.add(popularity.sample(random));
+        }
+        return ranks;
+    }
+
+    /**
+     * Knuth's method, fine for the small means used for tags per post.
+     */
+    private static int poisson(SplittableRandom random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static String content(SplittableRandom random, DatasetProperties properties) {
+        double gaussian = gaussian(random);
+        int length = (int) Math.round(properties.getContentLengthMedian()
+                * Math.exp(properties.getContentLengthSigma() * gaussian));
+        length = Math.max(1, Math.min(length, properties.getMaxContentLength()));
+        StringBuilder content = new StringBuilder(length + 16);
+        while (content.length() < length) {
+            if (!content.isEmpty()) {
+                content.append(' ');
+            }
+            content.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        content.setLength(length);
+        return content.toString();
+    }
+
+    /**
+     * Box-Muller transform, so generated lengths depend only on the seed.
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private void refreshDerivedState() {
+        sessionFactory.getCache().evictAllRegions();
+        tagBitmapIndex.rebuild();
+        readModel.rebuildIfEnabled();
+        blogSearchIndex.rebuildInBackground();
+    }
+
+    public record Summary(int posts, int tags, long postings, long millis) {
+    }
+}
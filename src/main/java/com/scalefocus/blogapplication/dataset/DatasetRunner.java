@@ -0,0 +1,37 @@
+package com.scalefocus.blogapplication.dataset;
+
+import com.scalefocus.blogapplication.config.DatasetProperties;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates the configured dataset on startup, e.g.
+ * {@code java -jar blog.jar --spring.profiles.active=dataset --blog.dataset.posts=5000000
+ * --blog.dataset.exit-on-completion=true --spring.datasource.url=jdbc:h2:file:./data/blog}.
+ */
+@Component
+@Profile("dataset")
+public class DatasetRunner implements ApplicationRunner {
+
+    private final DatasetGenerator generator;
+    private final DatasetProperties properties;
+    private final ApplicationContext applicationContext;
+
+    public DatasetRunner(DatasetGenerator generator, DatasetProperties properties, ApplicationContext applicationContext) {
+        this.generator = generator;
+        this.properties = properties;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generator.generate(properties);
+        if (properties.isExitOnCompletion()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
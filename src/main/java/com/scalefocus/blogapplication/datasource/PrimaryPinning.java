@@ -0,0 +1,46 @@
+package com.scalefocus.blogapplication.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as needing to see its own writes, which makes
+ * {@link ReadWriteRoutingDataSource} send read-only work to the primary as well.
+ */
+public final class PrimaryPinning {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryPinning() {
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    /**
+     * Pins the current thread; returns {@code false} if it already was, in which case the caller must
+     * leave the {@link #unpin()} to whoever pinned it.
+     */
+    public static boolean pin() {
+        if (isPinned()) {
+            return false;
+        }
+        PINNED.set(Boolean.TRUE);
+        return true;
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean pinned = pin();
+        try {
+            return action.get();
+        } finally {
+            if (pinned) {
+                unpin();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.scalefocus.blogapplication.datasource;
+
+import com.scalefocus.blogapplication.config.ReadReplicaProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Read-your-writes guard for clients of a lagging replica. Every request that may write sets the
+ * {@value #COOKIE} cookie, holding the time until which the client's reads go to the primary; the
+ * cookie is set before the request is handled because headers cannot be added once the body is out.
+ * Requests carrying an unexpired cookie run pinned to the primary.
+ */
+public class PrimaryPinningFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "blog-primary-until";
+    private static final Set<String> SAFE_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(),
+            HttpMethod.OPTIONS.name());
+
+    private final ReadReplicaProperties properties;
+
+    public PrimaryPinningFilter(ReadReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(now + properties.getPinDuration().toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, properties.getPinDuration().toSeconds()));
+            response.addCookie(cookie);
+        }
+        boolean pinned = (write || pinnedUntil(request) > now) && PrimaryPinning.pin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (pinned) {
+                PrimaryPinning.unpin();
+            }
+        }
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.scalefocus.blogapplication.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections everywhere else,
+ * including work outside any transaction. The decision is made when a connection is obtained, so this
+ * must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * transaction manager asks for a connection before the read-only flag of the transaction is published.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentTarget();
+    }
+
+    public static Target currentTarget() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PrimaryPinning.isPinned()
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+}
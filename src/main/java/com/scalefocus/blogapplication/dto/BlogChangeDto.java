@@ -0,0 +1,24 @@
+package com.scalefocus.blogapplication.dto;
+
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A change as sent on the change feed. It names the post and its new version rather than carrying the
+ * post, which consumers read themselves if they need it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogChangeDto {
+    private Long id;
+    private BlogPostChangedEvent.Type type;
+    private Long postId;
+    private Long postVersion;
+    private String tagName;
+    private Instant occurredAt;
+}
@@ -1,5 +1,6 @@
 package com.scalefocus.blogapplication.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,7 +15,12 @@ import java.util.Set;
 @AllArgsConstructor
 public class BlogPostDto {
     private Long id;
+    private Long version;
     private String title;
+    /**
+     * Left out of the responses to tag changes, see {@code BlogPostMapper#toDtoWithoutContent}.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String content;
     private Set<TagDto> tags = new HashSet<>();
 }
@@ -1,8 +1,12 @@
 package com.scalefocus.blogapplication.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class BlogPostSummaryDto {
     private Long id;
     private String title;
@@ -0,0 +1,12 @@
+package com.scalefocus.blogapplication.dto;
+
+/**
+ * Read-only projection of the searchable text of a post.
+ */
+public interface BlogPostTextView {
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+}
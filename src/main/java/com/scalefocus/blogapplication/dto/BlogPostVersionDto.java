@@ -0,0 +1,16 @@
+package com.scalefocus.blogapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Id and version of a post, enough to decide whether a client's cached copy is still current.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogPostVersionDto {
+    private Long id;
+    private Long version;
+}
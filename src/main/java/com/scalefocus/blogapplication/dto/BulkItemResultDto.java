@@ -0,0 +1,24 @@
+package com.scalefocus.blogapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDto {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    private int index;
+    private Long id;
+    private String title;
+    private Status status;
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.scalefocus.blogapplication.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkResultDto {
+    private int created;
+    private int failed;
+    private List<BulkItemResultDto> items = new ArrayList<>();
+
+    public void add(BulkItemResultDto item) {
+        items.add(item);
+        if (item.getStatus() == BulkItemResultDto.Status.CREATED) {
+            created++;
+        } else {
+            failed++;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.scalefocus.blogapplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+    private List<BlogPostSummaryDto> items = new ArrayList<>();
+    private long totalHits;
+    private int page;
+    private int size;
+}
@@ -1,5 +1,6 @@
 package com.scalefocus.blogapplication.dto;
 
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,5 +12,6 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class TagDto {
     private Long id;
+    @NotBlank
     private String name;
 }
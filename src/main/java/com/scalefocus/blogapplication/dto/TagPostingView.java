@@ -0,0 +1,10 @@
+package com.scalefocus.blogapplication.dto;
+
+/**
+ * Read-only projection of one {@code blog_post_tags} row.
+ */
+public interface TagPostingView {
+    String getTagName();
+
+    Long getPostId();
+}
@@ -0,0 +1,52 @@
+package com.scalefocus.blogapplication.event;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import lombok.Value;
+
+/**
+ * Published by the blog service for every mutation of a post. Listeners that maintain derived state
+ * should consume it with {@code @TransactionalEventListener} so they only see committed changes.
+ */
+@Value
+public class BlogPostChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        TAG_ADDED,
+        TAG_REMOVED
+    }
+
+    Type type;
+    Long postId;
+    /**
+     * State of the post after the change, {@code null} for {@link Type#DELETED}. Tag changes do not read
+     * the content, so it is only set for {@link Type#CREATED} and {@link Type#UPDATED}.
+     */
+    BlogPostDto post;
+    /**
+     * Name of the tag for {@link Type#TAG_ADDED} and {@link Type#TAG_REMOVED}.
+     */
+    String tagName;
+
+    public static BlogPostChangedEvent created(BlogPostDto post) {
+        return new BlogPostChangedEvent(Type.CREATED, post.getId(), post, null);
+    }
+
+    public static BlogPostChangedEvent updated(BlogPostDto post) {
+        return new BlogPostChangedEvent(Type.UPDATED, post.getId(), post, null);
+    }
+
+    public static BlogPostChangedEvent deleted(Long postId) {
+        return new BlogPostChangedEvent(Type.DELETED, postId, null, null);
+    }
+
+    public static BlogPostChangedEvent tagAdded(BlogPostDto post, String tagName) {
+        return new BlogPostChangedEvent(Type.TAG_ADDED, post.getId(), post, tagName);
+    }
+
+    public static BlogPostChangedEvent tagRemoved(BlogPostDto post, String tagName) {
+        return new BlogPostChangedEvent(Type.TAG_REMOVED, post.getId(), post, tagName);
+    }
+}
@@ -6,8 +6,9 @@ import com.scalefocus.blogapplication.model.BlogPost;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Mappings;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
+import org.mapstruct.Mappings;
 import org.mapstruct.factory.Mappers;
 
 import java.util.List;
@@ -15,38 +16,63 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface BlogPostMapper {
 
-    int SUMMARY_LENGTH = 20;
     BlogPostMapper INSTANCE = Mappers.getMapper(BlogPostMapper.class);
 
 
     @Mappings({
             @Mapping(target = "id", source = "id"),
             @Mapping(target = "title", source = "title"),
-            @Mapping(target = "summary", source = "content", qualifiedByName = "summary"),
+            @Mapping(target = "summary", source = "summary"),
     })
     BlogPostSummaryDto toSummaryDto(BlogPost blogPost);
 
     @Mappings({
             @Mapping(target = "id", source = "id"),
+            @Mapping(target = "version", source = "version"),
             @Mapping(target = "title", source = "title"),
             @Mapping(target = "content", source = "content"),
             @Mapping(target = "tags", source = "tags")
     })
     BlogPostDto toDto(BlogPost blogPost);
 
+    /**
+     * For responses to changes that never touch the content, so that the lazily fetched content is not
+     * read just to be echoed back.
+     */
+    @Mappings({
+            @Mapping(target = "id", source = "id"),
+            @Mapping(target = "version", source = "version"),
+            @Mapping(target = "title", source = "title"),
+            @Mapping(target = "content", ignore = true),
+            @Mapping(target = "tags", source = "tags")
+    })
+    @Named("withoutContent")
+    BlogPostDto toDtoWithoutContent(BlogPost blogPost);
+
     @Mappings({
             @Mapping(target = "id", source = "id"),
             @Mapping(target = "title", source = "title"),
             @Mapping(target = "content", source = "content"),
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "summary", ignore = true),
             @Mapping(target = "tags", source = "tags")
     })
     BlogPost toEntity(BlogPostDto blogPostDto);
 
-    List<BlogPostDto> toDtoList(List<BlogPost> blogPosts);
+    /**
+     * Copies the editable fields onto a managed post. Identity, version, summary and tags are owned by
+     * the entity and never taken from the request.
+     */
+    @Mappings({
+            @Mapping(target = "id", ignore = true),
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "title", source = "title"),
+            @Mapping(target = "content", source = "content"),
+            @Mapping(target = "summary", ignore = true),
+            @Mapping(target = "tags", ignore = true)
+    })
+    void updateEntity(BlogPostDto blogPostDto, @MappingTarget BlogPost blogPost);
 
-    @Named("summary")
-    default String toSummary(String content) {
-        return content.substring(0, Math.min(content.length(), SUMMARY_LENGTH));
-    }
+    List<BlogPostDto> toDtoList(List<BlogPost> blogPosts);
 
 }
@@ -21,6 +21,7 @@ public interface TagMapper {
 
     @Mappings({
             @Mapping(target = "id", source = "id"),
+            @Mapping(target = "version", ignore = true),
             @Mapping(target = "name", source = "name")
     })
     Tag toEntity(TagDto tagDto);
@@ -0,0 +1,44 @@
+package com.scalefocus.blogapplication.model;
+
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One committed change to a post in the change log behind {@code /api/blogs/changes}. Ids grow in the
+ * order changes are streamed, so a client resumes from the id of the last event it saw.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@Entity
+@Table(name = "blog_changes", indexes = @Index(name = "idx_blog_changes_occurred_at", columnList = "occurred_at"))
+public class BlogChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blog_changes_seq")
+    @SequenceGenerator(name = "blog_changes_seq", sequenceName = "blog_changes_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private BlogPostChangedEvent.Type type;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    /**
+     * Version of the post after the change, {@code null} for deletions.
+     */
+    @Column(name = "post_version")
+    private Long postVersion;
+
+    @Column(name = "tag_name")
+    private String tagName;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
@@ -1,7 +1,11 @@
 package com.scalefocus.blogapplication.model;
 
+import com.scalefocus.blogapplication.sharding.AssignableSequence;
+import com.scalefocus.blogapplication.storage.CompressedContentConverter;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.util.HashSet;
@@ -14,18 +18,52 @@ import java.util.Set;
 @RequiredArgsConstructor
 @Entity
 @Table(name = "blog_posts")
+@NamedEntityGraph(name = BlogPost.WITH_TAGS, attributeNodes = {@NamedAttributeNode("content"), @NamedAttributeNode("tags")})
 public class BlogPost {
 
+    /**
+     * Fetch plan for use-cases that render many complete posts at once: content and tags are read in
+     * the same statement as the posts.
+     */
+    public static final String WITH_TAGS = "BlogPost.withTags";
+    public static final String TAGS_CACHE_REGION = "blog-post-tags";
+    public static final int SUMMARY_LENGTH = 255;
+    public static final String ID_SEQUENCE = "blog_posts_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableSequence(name = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    /**
+     * Incremented on every change, including changes to the tag set, and exposed to clients as the ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "title", nullable = false, unique = true)
     private String title;
 
+    /**
+     * Large object read only when first accessed, or up front through an entity graph naming it. Relies
+     * on build-time bytecode enhancement; without it the attribute is fetched eagerly. Stored through
+     * {@link CompressedContentConverter}, so it may be compressed at rest.
+     */
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = CompressedContentConverter.class)
     @Column(name = "content", nullable = false)
+    @ToString.Exclude
     private String content;
 
+    /**
+     * Derived from {@link #content} on every write, see {@code SummaryGenerator}. {@code null} only for
+     * rows written before the column existed, until the backfill has reached them.
+     */
+    @Column(name = "summary", length = SUMMARY_LENGTH)
+    private String summary;
+
     @ManyToMany(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinTable(
             name = "blog_post_tags",
@@ -33,6 +71,7 @@ public class BlogPost {
             inverseJoinColumns = @JoinColumn(name = "tag_id")
     )
     @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TAGS_CACHE_REGION)
     private Set<Tag> tags = new HashSet<>();
 
     @Override
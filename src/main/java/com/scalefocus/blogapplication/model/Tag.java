@@ -1,7 +1,10 @@
 package com.scalefocus.blogapplication.model;
 
+import com.scalefocus.blogapplication.sharding.AssignableSequence;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.util.Objects;
@@ -12,10 +15,17 @@ import java.util.Objects;
 @RequiredArgsConstructor
 @Entity
 @Table(name = "tags")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Tag.CACHE_REGION)
 public class Tag {
+
+    public static final String CACHE_REGION = "tags";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableSequence(name = "tags_seq")
     private Long id;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     @Column(name = "name", nullable = false, unique = true)
     private String name;
 
@@ -0,0 +1,80 @@
+package com.scalefocus.blogapplication.monitoring;
+
+import com.scalefocus.blogapplication.config.SqlBudgetProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the database work of every API request and flags requests that exceed the statement budget
+ * of their route or repeat the same statement often enough to suggest an N+1 select. Statement counts
+ * are also recorded as the {@value #METRIC_NAME} distribution per route.
+ */
+@Component
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlBudgetFilter.class);
+    static final String COUNTS_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".counts";
+    static final String METRIC_NAME = "blog.sql.statements";
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlCounts counts = SqlCounter.start();
+        request.setAttribute(COUNTS_ATTRIBUTE, counts);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlCounter.stop(counts);
+            check(request, counts);
+        }
+    }
+
+    private void check(HttpServletRequest request, SqlCounts counts) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route == null) {
+            return;
+        }
+        String method = request.getMethod();
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements prepared per request")
+                .tag("method", method)
+                .tag("uri", route.toString())
+                .register(meterRegistry)
+                .record(counts.getStatements());
+
+        long budget = properties.budgetFor(method, route.toString());
+        if (counts.getStatements() > budget) {
+            LOGGER.warn("{} {} exceeded its SQL budget of {} statements: {}", method, route, budget, counts);
+        }
+        Map.Entry<String, Integer> repeated = counts.mostRepeatedStatement(properties.getRepeatedStatementThreshold());
+        if (repeated != null) {
+            LOGGER.warn("Possible N+1 in {} {}: statement prepared {} times: {}", method, route,
+                    repeated.getValue(), repeated.getKey());
+        }
+    }
+}
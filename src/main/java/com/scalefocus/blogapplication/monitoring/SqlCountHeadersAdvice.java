@@ -0,0 +1,48 @@
+package com.scalefocus.blogapplication.monitoring;
+
+import com.scalefocus.blogapplication.config.SqlBudgetProperties;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the counts collected by {@link SqlBudgetFilter} as response headers when
+ * {@code blog.sql-budget.expose-headers} is set. Headers have to be written before the body, so they
+ * reflect the work done up to serialization.
+ */
+@ControllerAdvice
+public class SqlCountHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ENTITY_LOADS_HEADER = "X-SQL-Entity-Loads";
+    public static final String COLLECTION_INITIALIZATIONS_HEADER = "X-SQL-Collection-Initializations";
+
+    private final SqlBudgetProperties properties;
+
+    public SqlCountHeadersAdvice(SqlBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isEnabled() && properties.isExposeHeaders();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(SqlBudgetFilter.COUNTS_ATTRIBUTE) instanceof SqlCounts counts) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(counts.getStatements()));
+            response.getHeaders().set(ENTITY_LOADS_HEADER, String.valueOf(counts.getEntityLoads()));
+            response.getHeaders().set(COLLECTION_INITIALIZATIONS_HEADER, String.valueOf(counts.getCollectionInitializations()));
+        }
+        return body;
+    }
+}
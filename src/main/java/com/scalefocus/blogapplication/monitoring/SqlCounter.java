@@ -0,0 +1,63 @@
+package com.scalefocus.blogapplication.monitoring;
+
+import java.util.function.Consumer;
+
+/**
+ * Thread-bound counting scopes for database work. Scopes nest: work done in an inner scope is also
+ * counted by every enclosing one. Work done on other threads is not attributed to the scope.
+ */
+public final class SqlCounter {
+
+    private static final ThreadLocal<SqlCounts> CURRENT = new ThreadLocal<>();
+
+    private SqlCounter() {
+    }
+
+    /**
+     * Opens a scope on the current thread. Must be paired with {@link #stop(SqlCounts)}.
+     */
+    public static SqlCounts start() {
+        SqlCounts counts = new SqlCounts(CURRENT.get());
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public static void stop(SqlCounts counts) {
+        if (counts.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(counts.parent);
+        }
+    }
+
+    /**
+     * Runs {@code action} in its own scope and returns what it did.
+     */
+    public static SqlCounts count(Runnable action) {
+        SqlCounts counts = start();
+        try {
+            action.run();
+        } finally {
+            stop(counts);
+        }
+        return counts;
+    }
+
+    static void statement(String sql) {
+        forEachScope(counts -> counts.statement(sql));
+    }
+
+    static void entityLoad() {
+        forEachScope(SqlCounts::entityLoad);
+    }
+
+    static void collectionInitialization() {
+        forEachScope(SqlCounts::collectionInitialization);
+    }
+
+    private static void forEachScope(Consumer<SqlCounts> action) {
+        for (SqlCounts counts = CURRENT.get(); counts != null; counts = counts.parent) {
+            action.accept(counts);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.scalefocus.blogapplication.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts entities materialised by the persistence context, whether from SQL or the second-level cache,
+ * and lazy collection initialisations. Collections fetched eagerly with their owner are not counted.
+ */
+@Component
+public class SqlCountingEventListener implements PostLoadEventListener, InitializeCollectionEventListener {
+
+    public SqlCountingEventListener(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        SqlCounter.entityLoad();
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        SqlCounter.collectionInitialization();
+    }
+}
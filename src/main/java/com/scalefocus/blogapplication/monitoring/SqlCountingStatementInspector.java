@@ -0,0 +1,15 @@
+package com.scalefocus.blogapplication.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares. A JDBC batch is prepared once and counts as one.
+ */
+public class SqlCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlCounter.statement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,76 @@
+package com.scalefocus.blogapplication.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Database work done within one {@link SqlCounter} scope: prepared SQL statements, entities
+ * materialised and lazy collections initialised. Only ever touched by the thread that opened the scope.
+ */
+public class SqlCounts {
+
+    private static final int MAX_DISTINCT_STATEMENTS = 1_000;
+
+    final SqlCounts parent;
+    private long statements;
+    private long entityLoads;
+    private long collectionInitializations;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    SqlCounts(SqlCounts parent) {
+        this.parent = parent;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public long getCollectionInitializations() {
+        return collectionInitializations;
+    }
+
+    /**
+     * Distinct SQL prepared in this scope; only the first 1000 distinct statements are tracked.
+     */
+    public Set<String> getDistinctStatements() {
+        return Set.copyOf(executionsBySql.keySet());
+    }
+
+    /**
+     * The statement prepared most often in this scope together with its count, or {@code null} if no
+     * statement was prepared at least {@code threshold} times. A statement repeated many times within
+     * one request is the usual sign of an N+1 select.
+     */
+    public Map.Entry<String, Integer> mostRepeatedStatement(int threshold) {
+        return executionsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+    void statement(String sql) {
+        statements++;
+        if (executionsBySql.size() < MAX_DISTINCT_STATEMENTS || executionsBySql.containsKey(sql)) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void entityLoad() {
+        entityLoads++;
+    }
+
+    void collectionInitialization() {
+        collectionInitializations++;
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + entityLoads + " entity loads, "
+                + collectionInitializations + " collection initializations";
+    }
+}
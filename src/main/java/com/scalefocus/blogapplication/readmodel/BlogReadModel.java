@@ -0,0 +1,402 @@
+package com.scalefocus.blogapplication.readmodel;
+
+import com.scalefocus.blogapplication.config.ReadModelProperties;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import com.scalefocus.blogapplication.mapper.BlogPostMapper;
+import com.scalefocus.blogapplication.model.BlogPost;
+import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.service.SummaryGenerator;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of every post as it is returned to clients, by id and by tag, active with
+ * {@code blog.read-model.enabled}. Once built it answers single posts, pages, summary pages and tag lists
+ * without a transaction or a query.
+ * <p>
+ * The model is built from the database once the application is ready and then maintained from committed
+ * {@link BlogPostChangedEvent}s. As in {@code TagBitmapIndex}, events committed while a build is running are
+ * queued and replayed on top of it. A post is only replaced by a state with at least its version, and a
+ * deleted post does not come back, so events handled out of commit order by concurrent requests cannot undo
+ * one another. A tag change for a post the model does not hold yet is kept until the post arrives. Deleted
+ * ids and early tag changes are only remembered for {@code blog.read-model.out-of-order-window}; a tag
+ * change whose post has not arrived by then marks the post for the next consistency check. Writes that
+ * bypass the service are not seen; {@link ReadModelConsistencyChecker} finds and repairs the resulting
+ * differences.
+ * <p>
+ * Posts are copied on the way in and handed out as shared snapshots that must not be modified.
+ */
+@Component
+public class BlogReadModel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlogReadModel.class);
+
+    private final ReadModelProperties properties;
+    private final BlogPostRepository blogPostRepository;
+    private final BlogPostMapper blogPostMapper;
+    private final SummaryGenerator summaryGenerator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private NavigableMap<Long, Entry> postsById = new TreeMap<>();
+    private Map<String, NavigableSet<Long>> idsByTag = new HashMap<>();
+    private final Map<Long, Long> deletedAt = new LinkedHashMap<>();
+    private final Map<Long, Early> earlyTagChanges = new LinkedHashMap<>();
+    private final Set<Long> suspects = new HashSet<>();
+    private final Queue<BlogPostChangedEvent> pending = new ArrayDeque<>();
+    private boolean ready;
+
+    public BlogReadModel(ReadModelProperties properties, BlogPostRepository blogPostRepository,
+                         BlogPostMapper blogPostMapper, SummaryGenerator summaryGenerator, EntityManager entityManager,
+                         PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.properties = properties;
+        this.blogPostRepository = blogPostRepository;
+        this.blogPostMapper = blogPostMapper;
+        this.summaryGenerator = summaryGenerator;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Whether reads should be answered here. Reads inside a transaction go to the database, which may hold
+     * changes of that transaction the model cannot see yet.
+     */
+    public boolean isServing() {
+        return isReady() && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BlogPostDto getPost(long id) {
+        lock.readLock().lock();
+        try {
+            Entry entry = postsById.get(id);
+            return entry == null ? null : entry.post();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} posts with an id greater than {@code after}, in id order.
+     */
+    public List<BlogPostDto> postsAfter(long after, int limit) {
+        lock.readLock().lock();
+        try {
+            return postsById.tailMap(after, false).values().stream().limit(limit).map(Entry::post).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} summaries of posts with an id greater than {@code after}, in id order.
+     */
+    public List<BlogPostSummaryDto> summariesAfter(long after, int limit) {
+        lock.readLock().lock();
+        try {
+            return postsById.tailMap(after, false).values().stream().limit(limit).map(Entry::summary).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posts carrying {@code tagName}, in id order.
+     */
+    public List<BlogPostDto> postsByTag(String tagName) {
+        lock.readLock().lock();
+        try {
+            return idsByTag.getOrDefault(tagName, Collections.emptyNavigableSet()).stream()
+                    .map(id -> postsById.get(id).post())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEnabled() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the model with a snapshot read from the database, one shard after the other. Posts whose
+     * summary has not been backfilled yet are summarized here.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<Long, Entry> builtPostsById = new TreeMap<>();
+        Map<String, NavigableSet<Long>> builtIdsByTag = new HashMap<>();
+        shardRouter.forEachShard(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<BlogPost> blogPosts = blogPostRepository.streamAllWithTags()) {
+                for (BlogPost blogPost : (Iterable<BlogPost>) blogPosts::iterator) {
+                    Entry entry = entry(blogPostMapper.toDto(blogPost), blogPost.getSummary());
+                    builtPostsById.put(blogPost.getId(), entry);
+                    index(builtIdsByTag, entry);
+                    entityManager.detach(blogPost);
+                }
+            }
+        }));
+
+        lock.writeLock().lock();
+        try {
+            postsById = builtPostsById;
+            idsByTag = builtIdsByTag;
+            while (!pending.isEmpty()) {
+                apply(pending.poll());
+            }
+            List.copyOf(earlyTagChanges.keySet()).forEach(this::applyEarlyTagChange);
+            expire();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Read model built with {} posts and {} tags in {} ms", builtPostsById.size(),
+                builtIdsByTag.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener
+    public void onBlogPostChanged(BlogPostChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event);
+                expire();
+            } else {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Versions of the posts with ids in {@code (after, last]}, for the consistency check.
+     */
+    NavigableMap<Long, Long> versions(long after, long last) {
+        lock.readLock().lock();
+        try {
+            return postsById.subMap(after, false, last, true).entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().post().getVersion(),
+                            (first, second) -> first, TreeMap::new));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posts whose tag changes arrived before the posts themselves and were given up on, for the
+     * consistency check to read again. Each is handed out once.
+     */
+    Set<Long> takeSuspects() {
+        lock.writeLock().lock();
+        try {
+            Set<Long> taken = Set.copyOf(suspects);
+            suspects.clear();
+            return taken;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Long versionOf(long id) {
+        BlogPostDto post = getPost(id);
+        return post == null ? null : post.getVersion();
+    }
+
+    /**
+     * Stores a post as read from the database, unless the model already holds a newer state or has seen it
+     * deleted.
+     */
+    void reload(BlogPostDto post, String summary) {
+        lock.writeLock().lock();
+        try {
+            put(entry(post, summary));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(BlogPostChangedEvent event) {
+        long postId = event.getPostId();
+        switch (event.getType()) {
+            case CREATED, UPDATED -> {
+                put(entry(event.getPost(), summaryGenerator.summarize(event.getPost().getContent())));
+                applyEarlyTagChange(postId);
+            }
+            case DELETED -> delete(postId);
+            default -> {
+                // tag changes carry the post without its content, which has not changed
+                Entry current = postsById.get(postId);
+                if (current != null) {
+                    put(new Entry(snapshot(event.getPost(), current.post().getContent()), current.summary()));
+                } else if (!deletedAt.containsKey(postId)) {
+                    Early early = earlyTagChanges.get(postId);
+                    if (early == null || early.event().getPost().getVersion() < event.getPost().getVersion()) {
+                        earlyTagChanges.put(postId, new Early(event, early == null ? System.nanoTime() : early.arrivedAt()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the latest tag change that arrived before post {@code id} did, now that the post is there.
+     */
+    private void applyEarlyTagChange(long id) {
+        Entry current = postsById.get(id);
+        if (current != null) {
+            Early early = earlyTagChanges.remove(id);
+            if (early != null) {
+                put(new Entry(snapshot(early.event().getPost(), current.post().getContent()), current.summary()));
+            }
+        }
+    }
+
+    /**
+     * Forgets deleted ids and early tag changes older than the out-of-order window. Both maps are in
+     * arrival order, so only their heads are looked at.
+     */
+    private void expire() {
+        long oldest = System.nanoTime() - properties.getOutOfOrderWindow().toNanos();
+        for (Iterator<Long> deletedAts = deletedAt.values().iterator(); deletedAts.hasNext(); ) {
+            if (deletedAts.next() - oldest >= 0) {
+                break;
+            }
+            deletedAts.remove();
+        }
+        for (Iterator<Map.Entry<Long, Early>> earlies = earlyTagChanges.entrySet().iterator(); earlies.hasNext(); ) {
+            Map.Entry<Long, Early> early = earlies.next();
+            if (early.getValue().arrivedAt() - oldest >= 0) {
+                break;
+            }
+            suspects.add(early.getKey());
+            earlies.remove();
+        }
+    }
+
+    private void put(Entry entry) {
+        Long id = entry.post().getId();
+        Entry current = postsById.get(id);
+        if (deletedAt.containsKey(id) || current != null && current.post().getVersion() > entry.post().getVersion()) {
+            return;
+        }
+        if (current != null) {
+            unindex(current);
+        }
+        postsById.put(id, entry);
+        index(idsByTag, entry);
+    }
+
+    private void delete(long id) {
+        deletedAt.remove(id);
+        deletedAt.put(id, System.nanoTime());
+        earlyTagChanges.remove(id);
+        Entry current = postsById.remove(id);
+        if (current != null) {
+            unindex(current);
+        }
+    }
+
+    private static void index(Map<String, NavigableSet<Long>> idsByTag, Entry entry) {
+        for (TagDto tag : entry.post().getTags()) {
+            idsByTag.computeIfAbsent(tag.getName(), name -> new TreeSet<>()).add(entry.post().getId());
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (TagDto tag : entry.post().getTags()) {
+            NavigableSet<Long> ids = idsByTag.get(tag.getName());
+            if (ids != null) {
+                ids.remove(entry.post().getId());
+                if (ids.isEmpty()) {
+                    idsByTag.remove(tag.getName());
+                }
+            }
+        }
+    }
+
+    private Entry entry(BlogPostDto post, String summary) {
+        BlogPostDto snapshot = snapshot(post, post.getContent());
+        return new Entry(snapshot, new BlogPostSummaryDto(snapshot.getId(), snapshot.getTitle(),
+                summary != null ? summary : summaryGenerator.summarize(snapshot.getContent())));
+    }
+
+    private static BlogPostDto snapshot(BlogPostDto post, String content) {
+        Set<TagDto> tags = post.getTags() == null ? Set.of() : post.getTags().stream()
+                .map(tag -> new TagDto(tag.getId(), tag.getName()))
+                .collect(Collectors.toUnmodifiableSet());
+        return new BlogPostDto(post.getId(), post.getVersion(), post.getTitle(), content, tags);
+    }
+
+    private record Entry(BlogPostDto post, BlogPostSummaryDto summary) {
+    }
+
+    private record Early(BlogPostChangedEvent event, long arrivedAt) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.scalefocus.blogapplication.readmodel;
+
+import com.scalefocus.blogapplication.config.ReadModelProperties;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostVersionDto;
+import com.scalefocus.blogapplication.mapper.BlogPostMapper;
+import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link BlogReadModel} with the database by post id and version, and optionally repairs the
+ * differences. Any change to a post, tags included, increments its version, so equal versions mean equal
+ * posts.
+ * <p>
+ * The database is read in keyset batches of versions, shard by shard, while the model keeps changing, so a
+ * first pass only yields suspects. Each suspect is read again from both sides and reported only if the two
+ * still disagree. Posts the model itself marked as suspect are read again the same way. Runs every
+ * {@code blog.read-model.consistency-check.interval} when that is set.
+ */
+@Component
+public class ReadModelConsistencyChecker implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadModelConsistencyChecker.class);
+
+    private final BlogReadModel readModel;
+    private final ReadModelProperties properties;
+    private final BlogPostRepository blogPostRepository;
+    private final BlogPostMapper blogPostMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+    private final ScheduledExecutorService scheduler;
+
+    public ReadModelConsistencyChecker(BlogReadModel readModel, ReadModelProperties properties,
+                                       BlogPostRepository blogPostRepository, BlogPostMapper blogPostMapper,
+                                       PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.readModel = readModel;
+        this.properties = properties;
+        this.blogPostRepository = blogPostRepository;
+        this.blogPostMapper = blogPostMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        long intervalMillis = properties.getConsistencyCheck().getInterval().toMillis();
+        if (properties.isEnabled() && intervalMillis > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "read-model-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::checkQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Compares every post, repairing the differences if {@code blog.read-model.consistency-check.repair}
+     * is set.
+     *
+     * @throws IllegalStateException if the read model has not been built
+     */
+    public Report check() {
+        if (!readModel.isReady()) {
+            throw new IllegalStateException("Read model is not ready yet");
+        }
+        long start = System.nanoTime();
+        Set<Long> suspects = new TreeSet<>();
+        long checked = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int currentShard = shard;
+            checked += shardRouter.onShard(shard, () -> scanShard(currentShard, suspects));
+        }
+        suspects.addAll(readModel.takeSuspects());
+        Report report = recheck(checked, suspects);
+        if (report.isConsistent()) {
+            LOGGER.info("Read model matches the database for {} posts, checked in {} ms", checked,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } else {
+            LOGGER.warn("Read model differs from the database: missing {}, stale {}, unexpected {}{}",
+                    report.missing(), report.stale(), report.unexpected(),
+                    properties.getConsistencyCheck().isRepair() ? ", repaired" : "");
+        }
+        return report;
+    }
+
+    private void checkQuietly() {
+        try {
+            if (readModel.isReady()) {
+                check();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Read model consistency check failed", e);
+        }
+    }
+
+    /**
+     * Adds the ids on the current shard whose version differs between database and model to
+     * {@code suspects} and returns the number of posts read from the database.
+     */
+    private long scanShard(int shard, Set<Long> suspects) {
+        int batchSize = properties.getConsistencyCheck().getBatchSize();
+        long after = 0;
+        long scanned = 0;
+        while (true) {
+            long from = after;
+            List<BlogPostVersionDto> batch = readOnlyTransaction.execute(status ->
+                    blogPostRepository.findVersionsByIdGreaterThan(from, Limit.of(batchSize)));
+            long last = batch.size() < batchSize ? Long.MAX_VALUE : batch.get(batch.size() - 1).getId();
+            NavigableMap<Long, Long> modelVersions = readModel.versions(after, last);
+            modelVersions.keySet().removeIf(id -> shardRouter.shardOf(id) != shard);
+            for (BlogPostVersionDto stored : batch) {
+                if (!Objects.equals(modelVersions.remove(stored.getId()), stored.getVersion())) {
+                    suspects.add(stored.getId());
+                }
+            }
+            suspects.addAll(modelVersions.keySet());
+            scanned += batch.size();
+            if (last == Long.MAX_VALUE) {
+                return scanned;
+            }
+            after = last;
+        }
+    }
+
+    private Report recheck(long checked, Set<Long> suspects) {
+        if (suspects.isEmpty()) {
+            return new Report(checked, List.of(), List.of(), List.of());
+        }
+        Map<Long, Long> storedVersions = new HashMap<>();
+        readOnlyTransaction.execute(status -> shardRouter.onShardsOf(suspects, blogPostRepository::findVersionsByIdIn))
+                .forEach(version -> storedVersions.put(version.getId(), version.getVersion()));
+        List<Long> missing = new ArrayList<>();
+        List<Long> stale = new ArrayList<>();
+        List<Long> unexpected = new ArrayList<>();
+        for (Long id : suspects) {
+            Long stored = storedVersions.get(id);
+            Long held = readModel.versionOf(id);
+            if (stored == null && held != null) {
+                unexpected.add(id);
+            } else if (stored != null && held == null) {
+                missing.add(id);
+            } else if (!Objects.equals(stored, held)) {
+                stale.add(id);
+            }
+        }
+        if (properties.getConsistencyCheck().isRepair()) {
+            unexpected.forEach(readModel::remove);
+            List<Long> reload = new ArrayList<>(missing);
+            reload.addAll(stale);
+            if (!reload.isEmpty()) {
+                reload(reload);
+            }
+        }
+        return new Report(checked, missing, stale, unexpected);
+    }
+
+    private void reload(List<Long> ids) {
+        List<Reloaded> posts = readOnlyTransaction.execute(status -> shardRouter.onShardsOf(ids, shardIds -> {
+            Map<Long, String> summaries = new HashMap<>();
+            blogPostRepository.findSummariesByIdIn(shardIds)
+                    .forEach(summary -> summaries.put(summary.getId(), summary.getSummary()));
+            return blogPostMapper.toDtoList(blogPostRepository.findWithTagsByIdIn(shardIds)).stream()
+                    .map(post -> new Reloaded(post, summaries.get(post.getId())))
+                    .toList();
+        }));
+        posts.forEach(reloaded -> readModel.reload(reloaded.post(), reloaded.summary()));
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private record Reloaded(BlogPostDto post, String summary) {
+    }
+
+    /**
+     * Ids of posts the model lacks, holds in another version, or holds although they are gone from the
+     * database.
+     */
+    public record Report(long checked, List<Long> missing, List<Long> stale, List<Long> unexpected) {
+
+        public boolean isConsistent() {
+            return missing.isEmpty() && stale.isEmpty() && unexpected.isEmpty();
+        }
+    }
+}
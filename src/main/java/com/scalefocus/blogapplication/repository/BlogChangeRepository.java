@@ -0,0 +1,20 @@
+package com.scalefocus.blogapplication.repository;
+
+import com.scalefocus.blogapplication.model.BlogChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface BlogChangeRepository extends JpaRepository<BlogChange, Long> {
+
+    List<BlogChange> findByIdGreaterThanOrderById(Long after, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM BlogChange c WHERE c.occurredAt < :before")
+    int deleteOccurredBefore(@Param("before") Instant before);
+}
@@ -1,14 +1,111 @@
 package com.scalefocus.blogapplication.repository;
 
+import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.BlogPostTextView;
+import com.scalefocus.blogapplication.dto.BlogPostVersionDto;
+import com.scalefocus.blogapplication.dto.TagPostingView;
 import com.scalefocus.blogapplication.model.BlogPost;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
 
-    @Query("SELECT b FROM BlogPost b JOIN b.tags t WHERE t.name = :tagName")
+    /**
+     * Posts carrying the given tag, each with its complete tag set fetched in the same statement.
+     * The tag filter lives in a subquery so that the fetch join is not restricted to the matched tag.
+     */
+    @EntityGraph(BlogPost.WITH_TAGS)
+    @Query("SELECT b FROM BlogPost b WHERE b.id IN "
+            + "(SELECT p.id FROM BlogPost p JOIN p.tags t WHERE t.name = :tagName) ORDER BY b.id")
     List<BlogPost> findAllByTagsContains(@Param("tagName") String tagName);
+
+    /**
+     * Keyset page: posts with an id strictly greater than {@code after}, in id order. Seeks on the
+     * primary key index, so the cost of a page does not depend on how deep into the table it is.
+     */
+    List<BlogPost> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * The post with its content, which a plain {@code findById} leaves unread.
+     */
+    @EntityGraph(attributePaths = "content")
+    Optional<BlogPost> findWithContentById(Long id);
+
+    @Query("SELECT b.version FROM BlogPost b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Keyset page of ids and versions only. Paging ids first keeps the row limit in the database;
+     * applying it to a query that also fetches the tag collection would force Hibernate to paginate in
+     * memory. The versions let a conditional request be answered before any entity is loaded.
+     */
+    @Query("SELECT new com.scalefocus.blogapplication.dto.BlogPostVersionDto(b.id, b.version) "
+            + "FROM BlogPost b WHERE b.id > :after ORDER BY b.id")
+    List<BlogPostVersionDto> findVersionsByIdGreaterThan(@Param("after") Long after, Limit limit);
+
+    @Query("SELECT new com.scalefocus.blogapplication.dto.BlogPostVersionDto(b.id, b.version) "
+            + "FROM BlogPost b WHERE b.id IN :ids")
+    List<BlogPostVersionDto> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page of stored summaries: only id, title and summary leave the database, the content is
+     * never read, and no entities are put in the persistence context.
+     */
+    @Query("SELECT new com.scalefocus.blogapplication.dto.BlogPostSummaryDto(b.id, b.title, b.summary) "
+            + "FROM BlogPost b WHERE b.id > :after ORDER BY b.id")
+    List<BlogPostSummaryDto> findSummariesByIdGreaterThan(@Param("after") Long after, Limit limit);
+
+    @Query("SELECT new com.scalefocus.blogapplication.dto.BlogPostSummaryDto(b.id, b.title, b.summary) "
+            + "FROM BlogPost b WHERE b.id IN :ids")
+    List<BlogPostSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page of posts that have no summary yet, for the summary backfill.
+     */
+    @Query("SELECT b.id AS id, b.title AS title, b.content AS content FROM BlogPost b "
+            + "WHERE b.summary IS NULL AND b.id > :after ORDER BY b.id")
+    List<BlogPostTextView> findTextWithoutSummaryByIdGreaterThan(@Param("after") Long after, Limit limit);
+
+    @EntityGraph(BlogPost.WITH_TAGS)
+    @Query("SELECT b FROM BlogPost b WHERE b.id IN :ids ORDER BY b.id")
+    List<BlogPost> findWithTagsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Forward-only cursor over every post with its tags, in id order. Must be consumed inside a
+     * transaction and closed afterwards; rows are fetched from the driver in chunks of the fetch size.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(BlogPost.WITH_TAGS)
+    @Query("SELECT b FROM BlogPost b ORDER BY b.id")
+    Stream<BlogPost> streamAllWithTags();
+
+    /**
+     * Forward-only cursor over the text of every post, used to rebuild the search index. Projections are
+     * not managed, so the persistence context stays empty however many rows are read.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b.id AS id, b.title AS title, b.content AS content FROM BlogPost b")
+    Stream<BlogPostTextView> streamAllText();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id FROM BlogPost b")
+    Stream<Long> streamAllIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.name AS tagName, b.id AS postId FROM BlogPost b JOIN b.tags t")
+    Stream<TagPostingView> streamAllTagPostings();
 }
@@ -1,10 +1,30 @@
 package com.scalefocus.blogapplication.repository;
 
 import com.scalefocus.blogapplication.model.Tag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
+
+    String BY_NAME_CACHE_REGION = "tag-by-name";
+
+    /**
+     * Served from the query cache; any write to {@code tags} invalidates the cached results.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_NAME_CACHE_REGION)
+    })
     Optional<Tag> findByName(String name);
+
+    List<Tag> findByNameIn(Collection<String> names);
+
+    List<Tag> findAllByOrderByIdAsc(Limit limit);
 }
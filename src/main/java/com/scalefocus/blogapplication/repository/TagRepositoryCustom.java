@@ -0,0 +1,15 @@
+package com.scalefocus.blogapplication.repository;
+
+import com.scalefocus.blogapplication.model.Tag;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TagRepositoryCustom {
+
+    /**
+     * Loads tags by id, taking them from the persistence context or second-level cache where possible
+     * and fetching the remainder with a single {@code IN} query.
+     */
+    List<Tag> findAllByIdIn(Collection<Long> ids);
+}
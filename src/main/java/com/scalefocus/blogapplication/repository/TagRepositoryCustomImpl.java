@@ -0,0 +1,33 @@
+package com.scalefocus.blogapplication.repository;
+
+import com.scalefocus.blogapplication.model.Tag;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+class TagRepositoryCustomImpl implements TagRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    TagRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Tag> findAllByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Tag.class)
+                .enableSessionCheck(true)
+                .multiLoad(new ArrayList<>(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
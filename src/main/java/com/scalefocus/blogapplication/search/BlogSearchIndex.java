@@ -0,0 +1,329 @@
+package com.scalefocus.blogapplication.search;
+
+import com.scalefocus.blogapplication.config.SearchProperties;
+import com.scalefocus.blogapplication.dto.BlogPostTextView;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Lucene inverted index over post titles and content.
+ * <p>
+ * The index is kept up to date incrementally from committed {@link BlogPostChangedEvent}s. Changes are
+ * visible to searches as soon as the event has been applied and are committed to disk on a fixed
+ * interval, and on shutdown, after which a marker file records that the index on disk is complete. When the
+ * index directory holds no index at startup, or the marker is missing because the application stopped
+ * without shutting down, changes since the last commit may be lost and the index is rebuilt from the
+ * database in the background, see {@link #rebuild()}.
+ */
+@Component
+public class BlogSearchIndex implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlogSearchIndex.class);
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String CONTENT = "content";
+    private static final Map<String, Float> BOOSTS = Map.of(TITLE, 2f, CONTENT, 1f);
+    static final String CLEAN_SHUTDOWN_MARKER = "clean-shutdown";
+
+    private final BlogPostRepository blogPostRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ScheduledExecutorService committer;
+    private final Path cleanShutdownMarker;
+    private final boolean existed;
+    private final boolean shutDownCleanly;
+    private volatile boolean complete;
+    private final Queue<BlogPostChangedEvent> replayed = new ArrayDeque<>();
+    private boolean rebuilding;
+
+    public BlogSearchIndex(SearchProperties properties, BlogPostRepository blogPostRepository,
+                           PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.blogPostRepository = blogPostRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        try {
+            Files.createDirectories(properties.getIndexDir());
+            this.directory = FSDirectory.open(properties.getIndexDir());
+            this.existed = DirectoryReader.indexExists(directory);
+            this.cleanShutdownMarker = properties.getIndexDir().resolve(CLEAN_SHUTDOWN_MARKER);
+            this.shutDownCleanly = Files.deleteIfExists(cleanShutdownMarker);
+            this.complete = existed && shutDownCleanly;
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open search index at " + properties.getIndexDir(), e);
+        }
+        long commitMillis = properties.getCommitInterval().toMillis();
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.committer.scheduleWithFixedDelay(this::commit, commitMillis, commitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        if (!existed) {
+            rebuildInBackground();
+        } else if (!shutDownCleanly) {
+            LOGGER.warn("Search index was not shut down cleanly and may lack recent changes, rebuilding it");
+            rebuildInBackground();
+        }
+    }
+
+    public void rebuildInBackground() {
+        Thread rebuild = new Thread(this::rebuild, "search-index-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Re-indexes every post from the database and removes documents of posts the snapshot did not contain.
+     * The snapshot is read with a cursor while changes keep being applied, so it can overwrite a newer
+     * document with older content or bring back a deleted one, and the removal can drop a post created
+     * meanwhile. Changes committed during the rebuild are therefore also recorded and applied once more, in
+     * order, after the snapshot has been indexed.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        synchronized (replayed) {
+            rebuilding = true;
+        }
+        Roaring64Bitmap indexed = new Roaring64Bitmap();
+        long removed = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                shardRouter.onShard(shard, () -> readOnlyTransaction.execute(status -> {
+                    try (Stream<BlogPostTextView> posts = blogPostRepository.streamAllText()) {
+                        for (BlogPostTextView post : (Iterable<BlogPostTextView>) posts::iterator) {
+                            index(post.getId(), post.getTitle(), post.getContent());
+                            indexed.addLong(post.getId());
+                        }
+                    }
+                    return null;
+                }));
+            }
+        } finally {
+            synchronized (replayed) {
+                try {
+                    removed = removeAllBut(indexed);
+                } finally {
+                    while (!replayed.isEmpty()) {
+                        apply(replayed.poll());
+                    }
+                    rebuilding = false;
+                }
+            }
+        }
+        commit();
+        refresh();
+        complete = true;
+        LOGGER.info("Search index rebuilt with {} posts, {} removed, in {} ms", indexed.getLongCardinality(), removed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener
+    public void onBlogPostChanged(BlogPostChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED, DELETED -> {
+                synchronized (replayed) {
+                    apply(event);
+                    if (rebuilding) {
+                        replayed.add(event);
+                    }
+                }
+                refresh();
+            }
+            default -> {
+                // tag changes are not indexed
+            }
+        }
+    }
+
+    /**
+     * Runs a ranked query against titles (boosted) and content.
+     *
+     * @throws IllegalArgumentException if the query cannot be parsed
+     */
+    public Hits search(String queryText, int offset, int limit) {
+        Query query = parse(queryText);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, offset + limit);
+                ScoreDoc[] page = topDocs.scoreDocs.length > offset
+                        ? Arrays.copyOfRange(topDocs.scoreDocs, offset, topDocs.scoreDocs.length)
+                        : new ScoreDoc[0];
+                List<Long> ids = new ArrayList<>(page.length);
+                for (ScoreDoc scoreDoc : page) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(scoreDoc.doc).get(ID)));
+                }
+                return new Hits(ids, topDocs.totalHits.value);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Query parse(String queryText) {
+        if (queryText == null || queryText.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[]{TITLE, CONTENT}, analyzer, BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid search query: " + queryText, e);
+        }
+    }
+
+    private void apply(BlogPostChangedEvent event) {
+        if (event.getType() == BlogPostChangedEvent.Type.DELETED) {
+            delete(event.getPostId());
+        } else {
+            index(event.getPostId(), event.getPost().getTitle(), event.getPost().getContent());
+        }
+    }
+
+    private void index(Long id, String title, String content) {
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Field.Store.YES));
+        document.add(new TextField(TITLE, title == null ? "" : title, Field.Store.NO));
+        document.add(new TextField(CONTENT, content == null ? "" : content, Field.Store.NO));
+        try {
+            writer.updateDocument(new Term(ID, id.toString()), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void delete(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the documents of every post not in {@code ids}.
+     *
+     * @return the number of posts deleted
+     */
+    private long removeAllBut(Roaring64Bitmap ids) {
+        List<Long> stale = new ArrayList<>();
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            for (LeafReaderContext leaf : reader.leaves()) {
+                Bits liveDocs = leaf.reader().getLiveDocs();
+                StoredFields storedFields = leaf.reader().storedFields();
+                for (int doc = 0; doc < leaf.reader().maxDoc(); doc++) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        long id = Long.parseLong(storedFields.document(doc).get(ID));
+                        if (!ids.contains(id)) {
+                            stale.add(id);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        stale.forEach(this::delete);
+        return stale.size();
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to commit search index", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        committer.shutdownNow();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        if (complete) {
+            Files.writeString(cleanShutdownMarker, "");
+        }
+    }
+
+    /**
+     * Post ids of one page of results in rank order, plus the total number of matches.
+     */
+    public record Hits(List<Long> ids, long totalHits) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.scalefocus.blogapplication.search;
+
+/**
+ * Thrown by an in-memory index that is asked a query before it has been built. The condition is
+ * temporary, so it is answered with 503 rather than as a server error.
+ */
+public class IndexNotReadyException extends IllegalStateException {
+
+    public IndexNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,179 @@
+package com.scalefocus.blogapplication.search;
+
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.dto.TagPostingView;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory compressed bitmap of post ids per tag, used to answer boolean tag queries without touching
+ * the {@code blog_post_tags} join table.
+ * <p>
+ * The index is built from the database once the application is ready and then maintained from committed
+ * {@link BlogPostChangedEvent}s. Events committed while a build is running are queued and replayed on top
+ * of the fresh snapshot; every change is idempotent, so replaying one already reflected in the snapshot
+ * is harmless.
+ */
+@Component
+public class TagBitmapIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TagBitmapIndex.class);
+    private static final Roaring64Bitmap EMPTY = new Roaring64Bitmap();
+
+    private final BlogPostRepository blogPostRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Roaring64Bitmap> postsByTag = new HashMap<>();
+    private Roaring64Bitmap allPosts = new Roaring64Bitmap();
+    private final Queue<BlogPostChangedEvent> pending = new ArrayDeque<>();
+    private boolean ready;
+
+    public TagBitmapIndex(BlogPostRepository blogPostRepository, PlatformTransactionManager transactionManager,
+                          ShardRouter shardRouter) {
+        this.blogPostRepository = blogPostRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Replaces the index with a snapshot read from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, Roaring64Bitmap> builtPostsByTag = new HashMap<>();
+        Roaring64Bitmap builtAllPosts = new Roaring64Bitmap();
+        shardRouter.forEachShard(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Long> ids = blogPostRepository.streamAllIds()) {
+                ids.forEach(builtAllPosts::addLong);
+            }
+            try (Stream<TagPostingView> postings = blogPostRepository.streamAllTagPostings()) {
+                postings.forEach(posting -> builtPostsByTag
+                        .computeIfAbsent(posting.getTagName(), name -> new Roaring64Bitmap())
+                        .addLong(posting.getPostId()));
+            }
+        }));
+        builtAllPosts.runOptimize();
+        builtPostsByTag.values().forEach(Roaring64Bitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            postsByTag = builtPostsByTag;
+            allPosts = builtAllPosts;
+            while (!pending.isEmpty()) {
+                apply(pending.poll());
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Tag bitmap index built with {} posts and {} tags in {} ms", builtAllPosts.getLongCardinality(),
+                builtPostsByTag.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener
+    public void onBlogPostChanged(BlogPostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event);
+            } else {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates a boolean tag expression, see {@link TagQuery} for the syntax.
+     *
+     * @return the matching post ids, owned by the caller
+     * @throws IllegalArgumentException if the query cannot be parsed
+     * @throws IndexNotReadyException    if the index has not been built yet
+     */
+    public Roaring64Bitmap evaluate(String query) {
+        TagQuery parsed = TagQuery.parse(query);
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                throw new IndexNotReadyException("Tag index is not ready yet");
+            }
+            return parsed.evaluate(tag -> postsByTag.getOrDefault(tag, EMPTY), allPosts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} ids of {@code bitmap} greater than {@code after}, in ascending order.
+     */
+    public static List<Long> idsAfter(Roaring64Bitmap bitmap, long after, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        PeekableLongIterator iterator = bitmap.getLongIterator();
+        iterator.advanceIfNeeded(after + 1);
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(iterator.next());
+        }
+        return ids;
+    }
+
+    private void apply(BlogPostChangedEvent event) {
+        long postId = event.getPostId();
+        switch (event.getType()) {
+            case CREATED -> {
+                allPosts.addLong(postId);
+                for (TagDto tag : event.getPost().getTags()) {
+                    postsByTag.computeIfAbsent(tag.getName(), name -> new Roaring64Bitmap()).addLong(postId);
+                }
+            }
+            case DELETED -> {
+                allPosts.removeLong(postId);
+                postsByTag.values().forEach(bitmap -> bitmap.removeLong(postId));
+            }
+            case TAG_ADDED -> postsByTag.computeIfAbsent(event.getTagName(), name -> new Roaring64Bitmap())
+                    .addLong(postId);
+            case TAG_REMOVED -> {
+                Roaring64Bitmap bitmap = postsByTag.get(event.getTagName());
+                if (bitmap != null) {
+                    bitmap.removeLong(postId);
+                }
+            }
+            default -> {
+                // updates do not change tag membership
+            }
+        }
+    }
+}
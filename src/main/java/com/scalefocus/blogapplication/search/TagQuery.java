@@ -0,0 +1,222 @@
+package com.scalefocus.blogapplication.search;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Parsed boolean tag expression such as {@code java AND performance NOT beginner}.
+ * <p>
+ * Grammar, with {@code AND} binding tighter than {@code OR} and adjacent terms joined by an implicit
+ * {@code AND}:
+ * <pre>
+ * or   := and ("OR" and)*
+ * and  := not (["AND"] not)*
+ * not  := "NOT" not | atom
+ * atom := "(" or ")" | tag | "quoted tag"
+ * </pre>
+ * Operators are upper case so that lower-case tags named {@code and}, {@code or} or {@code not} can
+ * still be queried.
+ */
+public abstract class TagQuery {
+
+    /**
+     * Evaluates the expression. Bitmaps handed out by {@code postsByTag} and {@code allPosts} are never
+     * modified; the result is always a fresh bitmap owned by the caller.
+     */
+    abstract Roaring64Bitmap evaluate(Function<String, Roaring64Bitmap> postsByTag, Roaring64Bitmap allPosts);
+
+    public static TagQuery parse(String query) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Tag query cannot be empty");
+        }
+        Parser parser = new Parser(tokenize(query));
+        TagQuery parsed = parser.or();
+        if (parser.position < parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.position) + "' in tag query");
+        }
+        return parsed;
+    }
+
+    private static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in tag query");
+                }
+                tokens.add(query.substring(i, end + 1));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < query.length() && !Character.isWhitespace(query.charAt(i))
+                        && query.charAt(i) != '(' && query.charAt(i) != ')') {
+                    i++;
+                }
+                tokens.add(query.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+        private final List<String> tokens;
+        private int position;
+
+        private Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        private TagQuery or() {
+            List<TagQuery> operands = new ArrayList<>();
+            operands.add(and());
+            while (accept("OR")) {
+                operands.add(and());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        private TagQuery and() {
+            List<TagQuery> operands = new ArrayList<>();
+            operands.add(not());
+            while (position < tokens.size() && !peek("OR") && !peek(")")) {
+                accept("AND");
+                operands.add(not());
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(operands);
+        }
+
+        private TagQuery not() {
+            if (accept("NOT")) {
+                return new Not(not());
+            }
+            return atom();
+        }
+
+        private TagQuery atom() {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Unexpected end of tag query");
+            }
+            String token = tokens.get(position++);
+            if (token.equals("(")) {
+                TagQuery inner = or();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("Missing ')' in tag query");
+                }
+                return inner;
+            }
+            if (token.equals(")") || token.equals("AND") || token.equals("OR")) {
+                throw new IllegalArgumentException("Unexpected '" + token + "' in tag query");
+            }
+            if (token.startsWith("\"")) {
+                token = token.substring(1, token.length() - 1);
+            }
+            return new Term(token);
+        }
+
+        private boolean peek(String token) {
+            return position < tokens.size() && tokens.get(position).equals(token);
+        }
+
+        private boolean accept(String token) {
+            if (peek(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static final class Term extends TagQuery {
+        private final String tag;
+
+        Term(String tag) {
+            this.tag = tag;
+        }
+
+        @Override
+        Roaring64Bitmap evaluate(Function<String, Roaring64Bitmap> postsByTag, Roaring64Bitmap allPosts) {
+            return postsByTag.apply(tag).clone();
+        }
+    }
+
+    static final class Not extends TagQuery {
+        private final TagQuery operand;
+
+        Not(TagQuery operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Roaring64Bitmap evaluate(Function<String, Roaring64Bitmap> postsByTag, Roaring64Bitmap allPosts) {
+            Roaring64Bitmap result = allPosts.clone();
+            result.andNot(operand.evaluate(postsByTag, allPosts));
+            return result;
+        }
+    }
+
+    /**
+     * Intersects the positive operands smallest first and subtracts negated operands directly, so that
+     * {@code a NOT b} never materialises the complement of {@code b}.
+     */
+    static final class And extends TagQuery {
+        private final List<TagQuery> operands;
+
+        And(List<TagQuery> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        Roaring64Bitmap evaluate(Function<String, Roaring64Bitmap> postsByTag, Roaring64Bitmap allPosts) {
+            List<Roaring64Bitmap> included = new ArrayList<>();
+            List<Roaring64Bitmap> excluded = new ArrayList<>();
+            for (TagQuery operand : operands) {
+                if (operand instanceof Not not) {
+                    excluded.add(not.operand.evaluate(postsByTag, allPosts));
+                } else {
+                    included.add(operand.evaluate(postsByTag, allPosts));
+                }
+            }
+            included.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+            Roaring64Bitmap result = included.isEmpty() ? allPosts.clone() : included.get(0);
+            for (int i = 1; i < included.size() && !result.isEmpty(); i++) {
+                result.and(included.get(i));
+            }
+            for (Roaring64Bitmap bitmap : excluded) {
+                if (result.isEmpty()) {
+                    break;
+                }
+                result.andNot(bitmap);
+            }
+            return result;
+        }
+    }
+
+    static final class Or extends TagQuery {
+        private final List<TagQuery> operands;
+
+        Or(List<TagQuery> operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        Roaring64Bitmap evaluate(Function<String, Roaring64Bitmap> postsByTag, Roaring64Bitmap allPosts) {
+            Roaring64Bitmap result = new Roaring64Bitmap();
+            for (TagQuery operand : operands) {
+                result.or(operand.evaluate(postsByTag, allPosts));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.scalefocus.blogapplication.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scalefocus.blogapplication.config.BlogPostCacheProperties;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of ready-made {@link BlogPostDto} snapshots by post id, in front of
+ * {@link BlogService#getBlog(Long)}.
+ * <p>
+ * Concurrent misses for the same id are coalesced into a single load. The load runs on the calling
+ * thread after the pending entry has been published, never inside the cache's map lock: with
+ * open-session-in-view a writer still holds its pooled connection while its commit invalidates the
+ * entry, and blocking that invalidation behind a load waiting for a connection starves the pool.
+ * Entries are invalidated once a change to the post has committed; an invalidation that races with a
+ * load drops the pending entry so its result is never cached, and loads completing within
+ * {@code blog.post-cache.not-cached-after-change} of an invalidation are not cached either. Reads inside a
+ * transaction bypass the cache, so uncommitted state is never published. Cached snapshots are shared and
+ * must not be modified.
+ */
+@Component
+public class BlogPostCache {
+
+    static final String CACHE_NAME = "blogs";
+
+    private final AsyncCache<Long, BlogPostDto> postsById;
+    private final Cache<Long, Boolean> recentlyChanged;
+
+    public BlogPostCache(BlogPostCacheProperties properties, MeterRegistry meterRegistry) {
+        this.postsById = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        this.recentlyChanged = !properties.getNotCachedAfterChange().isZero() && !properties.getNotCachedAfterChange().isNegative()
+                ? Caffeine.newBuilder().expireAfterWrite(properties.getNotCachedAfterChange()).build()
+                : null;
+        CaffeineCacheMetrics.monitor(meterRegistry, postsById, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached snapshot, or loads it with {@code loader}. Missing posts are not cached.
+     */
+    public BlogPostDto get(Long id, Function<Long, BlogPostDto> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.apply(id);
+        }
+        CompletableFuture<BlogPostDto> loading = new CompletableFuture<>();
+        CompletableFuture<BlogPostDto> snapshot = postsById.get(id, (key, executor) -> loading);
+        if (snapshot != loading) {
+            return join(snapshot);
+        }
+        try {
+            loading.complete(loader.apply(id));
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        if (recentlyChanged != null && recentlyChanged.getIfPresent(id) != null) {
+            postsById.asMap().remove(id, loading);
+        }
+        return loading.join();
+    }
+
+    private static BlogPostDto join(CompletableFuture<BlogPostDto> snapshot) {
+        try {
+            return snapshot.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBlogPostChanged(BlogPostChangedEvent event) {
+        if (recentlyChanged != null) {
+            recentlyChanged.put(event.getPostId(), Boolean.TRUE);
+        }
+        postsById.synchronous().invalidate(event.getPostId());
+    }
+}
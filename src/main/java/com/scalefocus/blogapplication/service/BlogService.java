@@ -2,14 +2,31 @@ package com.scalefocus.blogapplication.service;
 
 import com.scalefocus.blogapplication.dto.BlogPostDto;
 import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.BlogPostVersionDto;
+import com.scalefocus.blogapplication.dto.BulkResultDto;
+import com.scalefocus.blogapplication.dto.CursorPage;
+import com.scalefocus.blogapplication.dto.SearchResultDto;
 import com.scalefocus.blogapplication.dto.TagDto;
 
+import java.nio.ByteBuffer;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BlogService {
     BlogPostDto createBlog(BlogPostDto blogDto);
 
-    List<BlogPostDto> getBlogs();
+    BulkResultDto createBlogs(Iterator<BlogPostDto> blogDtos);
+
+    CursorPage<BlogPostDto> getBlogs(String after, Integer limit);
+
+    CursorPage<BlogPostVersionDto> getBlogVersions(String after, Integer limit);
+
+    CursorPage<BlogPostDto> loadBlogs(CursorPage<BlogPostVersionDto> versions);
+
+    void exportBlogs(Consumer<BlogPostDto> sink);
+
+    Long getBlogVersion(Long id);
 
     BlogPostDto updateBlog(Long id, BlogPostDto blogDto);
 
@@ -19,11 +36,17 @@ public interface BlogService {
 
     List<BlogPostDto> getBlogsByTag(String tagName);
 
-    List<BlogPostSummaryDto> getSummarizedBlogs();
+    CursorPage<BlogPostDto> queryBlogsByTags(String query, String after, Integer limit);
+
+    CursorPage<BlogPostSummaryDto> getSummarizedBlogs(String after, Integer limit);
+
+    SearchResultDto searchBlogs(String query, Integer page, Integer size);
 
     void deleteBlog(Long id);
 
     BlogPostDto getBlog(Long id);
 
+    ByteBuffer getContent(Long id);
+
     BlogPostDto addTagByName(Long id, String tagName);
 }
@@ -1,145 +1,577 @@
 package com.scalefocus.blogapplication.service;
 
+import com.scalefocus.blogapplication.config.BulkIngestionProperties;
+import com.scalefocus.blogapplication.config.PaginationProperties;
+import com.scalefocus.blogapplication.config.SearchProperties;
 import com.scalefocus.blogapplication.dto.BlogPostDto;
 import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.BlogPostVersionDto;
+import com.scalefocus.blogapplication.dto.BulkItemResultDto;
+import com.scalefocus.blogapplication.dto.BulkResultDto;
+import com.scalefocus.blogapplication.dto.CursorPage;
+import com.scalefocus.blogapplication.dto.SearchResultDto;
 import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
 import com.scalefocus.blogapplication.mapper.BlogPostMapper;
 import com.scalefocus.blogapplication.model.BlogPost;
+import com.scalefocus.blogapplication.readmodel.BlogReadModel;
 import com.scalefocus.blogapplication.model.Tag;
 import com.scalefocus.blogapplication.repository.BlogPostRepository;
-import jakarta.transaction.Transactional;
+import com.scalefocus.blogapplication.search.BlogSearchIndex;
+import com.scalefocus.blogapplication.search.TagBitmapIndex;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import com.scalefocus.blogapplication.storage.ContentCodec;
+import com.scalefocus.blogapplication.storage.ContentLog;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = BlogServiceImpl.TIMER_NAME, description = "Time spent in BlogService methods")
 public class BlogServiceImpl implements BlogService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BlogServiceImpl.class);
+    static final String TIMER_NAME = "blog.service";
 
     private final BlogPostRepository blogPostRepository;
     private final BlogPostMapper blogPostMapper;
     private final TagService tagService;
+    private final PaginationProperties paginationProperties;
+    private final BulkIngestionProperties bulkIngestionProperties;
+    private final SearchProperties searchProperties;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlogSearchIndex searchIndex;
+    private final TagBitmapIndex tagBitmapIndex;
+    private final BlogPostCache blogPostCache;
+    private final SummaryGenerator summaryGenerator;
+    private final ShardRouter shardRouter;
+    private final BlogReadModel readModel;
+    private final ContentCodec contentCodec;
 
-    public BlogServiceImpl(BlogPostRepository blogPostRepository, BlogPostMapper blogPostMapper, TagService tagService) {
+    public BlogServiceImpl(BlogPostRepository blogPostRepository, BlogPostMapper blogPostMapper, TagService tagService,
+                           PaginationProperties paginationProperties, BulkIngestionProperties bulkIngestionProperties,
+                           SearchProperties searchProperties, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                           BlogSearchIndex searchIndex, TagBitmapIndex tagBitmapIndex, BlogPostCache blogPostCache,
+                           SummaryGenerator summaryGenerator, ShardRouter shardRouter, BlogReadModel readModel,
+                           ContentCodec contentCodec) {
         this.blogPostRepository = blogPostRepository;
         this.blogPostMapper = blogPostMapper;
         this.tagService = tagService;
+        this.paginationProperties = paginationProperties;
+        this.bulkIngestionProperties = bulkIngestionProperties;
+        this.searchProperties = searchProperties;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.tagBitmapIndex = tagBitmapIndex;
+        this.blogPostCache = blogPostCache;
+        this.summaryGenerator = summaryGenerator;
+        this.shardRouter = shardRouter;
+        this.readModel = readModel;
+        this.contentCodec = contentCodec;
     }
 
+    /**
+     * New tags are created before the post's transaction opens, see {@link TagService#createMissingTags}.
+     * With sharding the title is reserved across shards first, see {@link ShardRouter#withTitle}.
+     */
     @Override
-    @Transactional
     public BlogPostDto createBlog(BlogPostDto blogDto) {
         if (blogDto == null) {
             throw new IllegalArgumentException("Blog cannot be null");
         }
+        Set<String> tagNames = tagNames(List.of(blogDto));
+        tagService.createMissingTags(tagNames);
         BlogPost blogPost = blogPostMapper.toEntity(blogDto);
-        Set<Tag> tags = new HashSet<>();
-        if (blogPost.getTags() == null) {
+        blogPost.setId(shardRouter.nextPostId());
+        blogPost.setSummary(summaryGenerator.summarize(blogDto.getContent()));
+        return shardRouter.withTitle(blogPost.getId(), blogPost.getTitle(), () -> transactionTemplate.execute(status ->
+                shardRouter.onShardOf(blogPost.getId(), () -> {
+                    blogPost.setTags(new HashSet<>(tagService.resolveTags(tagNames).values()));
+
+                    BlogPostDto createdBlog = blogPostMapper.toDto(blogPostRepository.save(blogPost));
+                    eventPublisher.publishEvent(BlogPostChangedEvent.created(createdBlog));
+                    LOGGER.info("Blog with id {} created", createdBlog.getId());
+                    return createdBlog;
+                })));
+    }
+
+    /**
+     * Persists posts in chunks of {@code blog.bulk.chunk-size}, one transaction per chunk, so that
+     * Hibernate can send the inserts of a chunk as JDBC batches. If a chunk fails as a whole it is
+     * replayed item by item to find out which posts were at fault.
+     */
+    @Override
+    public BulkResultDto createBlogs(Iterator<BlogPostDto> blogDtos) {
+        BulkResultDto result = new BulkResultDto();
+        int chunkSize = bulkIngestionProperties.getChunkSize();
+        List<BlogPostDto> chunk = new ArrayList<>(chunkSize);
+        int offset = 0;
+        while (blogDtos.hasNext()) {
+            chunk.add(blogDtos.next());
+            if (chunk.size() == chunkSize || !blogDtos.hasNext()) {
+                createChunk(chunk, offset).forEach(result::add);
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+        LOGGER.info("Bulk import finished: {} blogs created, {} failed", result.getCreated(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * With sharding, the chunk is split by shard and each part gets a transaction of its own. New tags are
+     * created before any of these transactions opens. Titles are reserved across shards as the posts are
+     * persisted; a post that ends up failing gives its title back.
+     */
+    private List<BulkItemResultDto> createChunk(List<BlogPostDto> chunk, int offset) {
+        tagService.createMissingTags(tagNames(chunk));
+        Map<Integer, List<BulkItem>> itemsByShard = new TreeMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = shardRouter.nextPostId();
+            itemsByShard.computeIfAbsent(shardRouter.shardOf(id), shard -> new ArrayList<>())
+                    .add(new BulkItem(offset + i, id, chunk.get(i)));
+        }
+        List<BulkItemResultDto> results = new ArrayList<>(chunk.size());
+        itemsByShard.values().forEach(items -> results.addAll(createOnShard(items)));
+        return results;
+    }
+
+    private List<BulkItemResultDto> createOnShard(List<BulkItem> items) {
+        try {
+            return shardRouter.onShardOf(items.get(0).id(),
+                    () -> transactionTemplate.execute(status -> persistChunk(items)));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Bulk chunk starting at {} failed, retrying item by item: {}", items.get(0).index(), e.getMessage());
+        }
+        List<BulkItemResultDto> results = new ArrayList<>(items.size());
+        for (BulkItem item : items) {
+            try {
+                results.addAll(shardRouter.onShardOf(item.id(),
+                        () -> transactionTemplate.execute(status -> persistChunk(List.of(item)))));
+            } catch (DataAccessException e) {
+                shardRouter.releaseTitles(item.id());
+                results.add(failed(item.index(), item.blogDto(), e.getMostSpecificCause().getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private List<BulkItemResultDto> persistChunk(List<BulkItem> items) {
+        Map<String, Tag> tagsByName = tagService.resolveTags(tagNames(items.stream().map(BulkItem::blogDto).toList()));
+
+        List<BulkItemResultDto> results = new ArrayList<>(items.size());
+        List<BlogPost> blogPosts = new ArrayList<>(items.size());
+        for (BulkItem item : items) {
+            BlogPostDto blogDto = item.blogDto();
+            if (blogDto == null || isBlank(blogDto.getTitle()) || isBlank(blogDto.getContent())) {
+                results.add(failed(item.index(), blogDto, "Title and content are required"));
+                continue;
+            }
+            shardRouter.reserveTitle(item.id(), blogDto.getTitle());
+            BlogPost blogPost = blogPostMapper.toEntity(blogDto);
+            blogPost.setId(item.id());
+            blogPost.setSummary(summaryGenerator.summarize(blogDto.getContent()));
+            Set<Tag> tags = new HashSet<>();
+            if (blogDto.getTags() != null) {
+                blogDto.getTags().stream()
+                        .map(tag -> tagsByName.get(tag.getName()))
+                        .filter(Objects::nonNull)
+                        .forEach(tags::add);
+            }
             blogPost.setTags(tags);
+            blogPosts.add(blogPost);
+            results.add(BulkItemResultDto.builder()
+                    .index(item.index())
+                    .title(blogDto.getTitle())
+                    .status(BulkItemResultDto.Status.CREATED)
+                    .build());
         }
-        for (Tag tag : blogPost.getTags()) {
-            Tag managedTag = tagService.findOrCreateTag(tag);
-            tags.add(managedTag);
+        blogPostRepository.saveAll(blogPosts);
+        blogPostRepository.flush();
+        Iterator<BlogPost> saved = blogPosts.iterator();
+        results.stream()
+                .filter(item -> item.getStatus() == BulkItemResultDto.Status.CREATED)
+                .forEach(item -> item.setId(saved.next().getId()));
+        blogPosts.forEach(blogPost -> eventPublisher.publishEvent(BlogPostChangedEvent.created(blogPostMapper.toDto(blogPost))));
+        entityManager.clear();
+        return results;
+    }
+
+    /**
+     * A post of a bulk import with its position in the input and, with sharding, its id.
+     */
+    private record BulkItem(int index, Long id, BlogPostDto blogDto) {
+    }
+
+    private static Set<String> tagNames(List<BlogPostDto> blogDtos) {
+        Set<String> names = new HashSet<>();
+        for (BlogPostDto blogDto : blogDtos) {
+            if (blogDto != null && blogDto.getTags() != null) {
+                blogDto.getTags().stream()
+                        .map(TagDto::getName)
+                        .filter(Objects::nonNull)
+                        .forEach(names::add);
+            }
+        }
+        return names;
+    }
+
+    private static BulkItemResultDto failed(int index, BlogPostDto blogDto, String error) {
+        return BulkItemResultDto.builder()
+                .index(index)
+                .title(blogDto == null ? null : blogDto.getTitle())
+                .status(BulkItemResultDto.Status.FAILED)
+                .error(error)
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Served by the read model when it is built; otherwise, like the other reads the read model can
+     * answer, loaded in a read-only transaction of its own, so that serving from memory never opens one.
+     */
+    @Override
+    public CursorPage<BlogPostDto> getBlogs(String after, Integer limit) {
+        if (readModel.isServing()) {
+            return findPage(after, limit, (afterId, pageLimit) -> readModel.postsAfter(afterId, pageLimit.max()),
+                    BlogPostDto::getId);
+        }
+        return readOnlyTransaction.execute(status -> loadBlogs(getBlogVersions(after, limit)));
+    }
+
+    /**
+     * Taken from the read model's posts when it is serving; otherwise read in a read-only transaction.
+     */
+    @Override
+    public CursorPage<BlogPostVersionDto> getBlogVersions(String after, Integer limit) {
+        if (readModel.isServing()) {
+            return findPage(after, limit, (afterId, pageLimit) -> readModel.postsAfter(afterId, pageLimit.max()).stream()
+                    .map(post -> new BlogPostVersionDto(post.getId(), post.getVersion()))
+                    .toList(), BlogPostVersionDto::getId);
         }
-        blogPost.setTags(tags);
+        return readOnlyTransaction.execute(status -> findPage(after, limit, (afterId, pageLimit) ->
+                        merge(shardRouter.onEachShard(() -> blogPostRepository.findVersionsByIdGreaterThan(afterId, pageLimit)),
+                                BlogPostVersionDto::getId),
+                BlogPostVersionDto::getId));
+    }
 
-        BlogPostDto createdBlog = blogPostMapper.toDto(blogPostRepository.save(blogPost));
-        LOGGER.info("Blog with id {} created", createdBlog.getId());
-        return createdBlog;
+    /**
+     * From the read model when it is serving, which may hold a newer version of a post than
+     * {@code versions} by now; otherwise loaded in a read-only transaction.
+     */
+    @Override
+    public CursorPage<BlogPostDto> loadBlogs(CursorPage<BlogPostVersionDto> versions) {
+        List<Long> ids = versions.getItems().stream().map(BlogPostVersionDto::getId).toList();
+        if (readModel.isServing()) {
+            return new CursorPage<>(ids.stream().map(readModel::getPost).filter(Objects::nonNull).toList(),
+                    versions.getNextCursor());
+        }
+        return readOnlyTransaction.execute(status -> loadWithTags(new CursorPage<>(ids, versions.getNextCursor())));
     }
 
+    /**
+     * Streams every post to {@code sink} one at a time. Each entity is detached once it has been
+     * handed over, so the persistence context does not grow with the size of the table. With sharding
+     * the shards are exported one after the other, each in id order.
+     */
     @Override
-    public List<BlogPostDto> getBlogs() {
-        return blogPostMapper.toDtoList(blogPostRepository.findAll());
+    @Transactional(readOnly = true)
+    public void exportBlogs(Consumer<BlogPostDto> sink) {
+        long exported = shardRouter.onEachShard(() -> {
+            long count = 0;
+            try (Stream<BlogPost> blogPosts = blogPostRepository.streamAllWithTags()) {
+                for (BlogPost blogPost : (Iterable<BlogPost>) blogPosts::iterator) {
+                    sink.accept(blogPostMapper.toDto(blogPost));
+                    entityManager.detach(blogPost);
+                    count++;
+                }
+            }
+            return count;
+        }).stream().mapToLong(Long::longValue).sum();
+        LOGGER.info("Exported {} blogs", exported);
     }
 
     @Override
+    @Transactional
     public void deleteBlog(Long id) {
-        blogPostRepository.deleteById(id);
+        shardRouter.onShardOf(id, () -> {
+            blogPostRepository.deleteById(id);
+            eventPublisher.publishEvent(BlogPostChangedEvent.deleted(id));
+            return null;
+        });
+        shardRouter.releaseTitles(id);
         LOGGER.info("Blog with id {} deleted", id);
     }
 
+    /**
+     * Not transactional itself, as the read model and the cache are bypassed inside transactions; a miss
+     * is loaded in a read-only transaction of its own.
+     */
     @Override
     public BlogPostDto getBlog(Long id) {
-        return blogPostMapper.toDto(blogPostRepository.findById(id).orElse(null));
+        if (readModel.isServing()) {
+            return readModel.getPost(id);
+        }
+        return blogPostCache.get(id, postId -> readOnlyTransaction.execute(status -> shardRouter.onShardOf(postId,
+                () -> blogPostMapper.toDto(blogPostRepository.findWithContentById(postId).orElse(null)))));
     }
 
+    /**
+     * The UTF-8 content alone, read from the stored column. Content kept in the {@link ContentLog} is
+     * returned as a slice of its mapped segment rather than decoded into a string. The column is read
+     * natively, with a string result type so that Hibernate reads the CLOB as text, to bypass
+     * {@code CompressedContentConverter}.
+     */
     @Override
-    public BlogPostDto updateBlog(Long id, BlogPostDto blogDto) {
-        Optional<BlogPost> blogPost = blogPostRepository.findById(id);
-        if (blogPost.isPresent()) {
-            BlogPost updatedBlog = blogPostMapper.toEntity(blogDto);
-            updatedBlog.setId(id);
-            updatedBlog.setTags(blogPost.get().getTags());
-            BlogPostDto updatedBlogDto = blogPostMapper.toDto(blogPostRepository.save(updatedBlog));
-            LOGGER.info("Blog with id {} updated", id);
-            return updatedBlogDto;
+    @Transactional(readOnly = true)
+    public ByteBuffer getContent(Long id) {
+        return shardRouter.onShardOf(id, () -> {
+            List<?> stored = entityManager
+                    .createNativeQuery("SELECT content FROM blog_posts WHERE id = :id", String.class)
+                    .setParameter("id", id)
+                    .getResultList();
+            return stored.isEmpty() ? null : contentCodec.bytes((String) stored.get(0));
+        });
+    }
+
+    /**
+     * Like {@link #getBlog}, answered by the read model when it is serving.
+     */
+    @Override
+    public Long getBlogVersion(Long id) {
+        if (readModel.isServing()) {
+            BlogPostDto post = readModel.getPost(id);
+            return post == null ? null : post.getVersion();
         }
-        LOGGER.error("Blog with id {} not found", id);
-        return null;
+        return readOnlyTransaction.execute(status ->
+                shardRouter.onShardOf(id, () -> blogPostRepository.findVersionById(id).orElse(null)));
+    }
+
+    /**
+     * Applies the update to the managed post. When {@code blogDto} carries a version it must match the
+     * stored one, otherwise the update is rejected as a lost update. The flush makes the incremented
+     * version visible in the returned post. With sharding a new title is reserved across shards first.
+     */
+    @Override
+    @Transactional
+    public BlogPostDto updateBlog(Long id, BlogPostDto blogDto) {
+        return shardRouter.withTitle(id, blogDto.getTitle(), () -> shardRouter.onShardOf(id, () -> {
+            Optional<BlogPost> blogPost = blogPostRepository.findById(id);
+            if (blogPost.isPresent()) {
+                BlogPost updatedBlog = blogPost.get();
+                if (blogDto.getVersion() != null && !blogDto.getVersion().equals(updatedBlog.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(BlogPost.class, id);
+                }
+                blogPostMapper.updateEntity(blogDto, updatedBlog);
+                updatedBlog.setSummary(summaryGenerator.summarize(updatedBlog.getContent()));
+                BlogPostDto updatedBlogDto = blogPostMapper.toDto(blogPostRepository.saveAndFlush(updatedBlog));
+                eventPublisher.publishEvent(BlogPostChangedEvent.updated(updatedBlogDto));
+                LOGGER.info("Blog with id {} updated", id);
+                return updatedBlogDto;
+            }
+            LOGGER.error("Blog with id {} not found", id);
+            return null;
+        }));
     }
 
+    /**
+     * Tag changes only read and write the narrow post row and the join table; the returned post and
+     * the published event leave the content out. A new tag is created before the transaction opens.
+     */
     @Override
     public BlogPostDto addTag(Long id, TagDto tag) {
-        Optional<BlogPost> blogPost = blogPostRepository.findById(id);
-        if (blogPost.isPresent()) {
-            TagDto createdTag = tagService.createTag(tag);
-            blogPost.get().getTags().add(tagService.toEntity(createdTag));
-            BlogPostDto updatedBlog = blogPostMapper.toDto(blogPostRepository.save(blogPost.get()));
-            LOGGER.info("Tag {} added to blog with id {}", tag.getName(), id);
-            return updatedBlog;
-        }
-        LOGGER.error("Blog with id {} not found", id);
-        return null;
+        tagService.createMissingTags(List.of(tag.getName()));
+        return transactionTemplate.execute(status -> shardRouter.onShardOf(id, () -> {
+            Optional<BlogPost> blogPost = blogPostRepository.findById(id);
+            if (blogPost.isPresent()) {
+                blogPost.get().getTags().add(tagService.resolveTags(List.of(tag.getName())).get(tag.getName()));
+                BlogPostDto updatedBlog = blogPostMapper.toDtoWithoutContent(blogPostRepository.saveAndFlush(blogPost.get()));
+                eventPublisher.publishEvent(BlogPostChangedEvent.tagAdded(updatedBlog, tag.getName()));
+                LOGGER.info("Tag {} added to blog with id {}", tag.getName(), id);
+                return updatedBlog;
+            }
+            LOGGER.error("Blog with id {} not found", id);
+            return null;
+        }));
     }
 
     @Override
     public BlogPostDto addTagByName(Long id, String tagName) {
-        Optional<BlogPost> blogPost = blogPostRepository.findById(id);
-        if (blogPost.isPresent()) {
-            TagDto tag = tagService.getTagByName(tagName);
-            if (tag == null) {
-                tag = tagService.createTag(TagDto.builder().name(tagName).build());
+        tagService.createMissingTags(List.of(tagName));
+        return transactionTemplate.execute(status -> shardRouter.onShardOf(id, () -> {
+            Optional<BlogPost> blogPost = blogPostRepository.findById(id);
+            if (blogPost.isPresent()) {
+                blogPost.get().getTags().add(tagService.resolveTags(List.of(tagName)).get(tagName));
+                BlogPostDto updatedBlog = blogPostMapper.toDtoWithoutContent(blogPostRepository.saveAndFlush(blogPost.get()));
+                eventPublisher.publishEvent(BlogPostChangedEvent.tagAdded(updatedBlog, tagName));
+                LOGGER.info("Tag {} added to blog with id {}", tagName, id);
+                return updatedBlog;
             }
-            blogPost.get().getTags().add(tagService.toEntity(tag));
-            BlogPostDto updatedBlog = blogPostMapper.toDto(blogPostRepository.save(blogPost.get()));
-            LOGGER.info("Tag {} added to blog with id {}", tagName, id);
-            return updatedBlog;
-        }
-        LOGGER.error("Blog with id {} not found", id);
-        return null;
+            LOGGER.error("Blog with id {} not found", id);
+            return null;
+        }));
     }
 
     @Override
+    @Transactional
     public BlogPostDto removeTag(Long id, String tagName) {
-        Optional<BlogPost> blogPost = blogPostRepository.findById(id);
-        if (blogPost.isPresent()) {
-            TagDto tag = tagService.getTagByName(tagName);
-            blogPost.get().getTags().remove(tagService.toEntity(tag));
-            BlogPostDto updatedBlog = blogPostMapper.toDto(blogPostRepository.save(blogPost.get()));
-            LOGGER.info("Tag {} removed from blog with id {}", tagName, id);
-            return updatedBlog;
-        }
-        LOGGER.error("Blog with id {} not found", id);
-        return null;
+        return shardRouter.onShardOf(id, () -> {
+            Optional<BlogPost> blogPost = blogPostRepository.findById(id);
+            if (blogPost.isPresent()) {
+                blogPost.get().getTags().removeIf(tag -> tag.getName().equals(tagName));
+                BlogPostDto updatedBlog = blogPostMapper.toDtoWithoutContent(blogPostRepository.saveAndFlush(blogPost.get()));
+                eventPublisher.publishEvent(BlogPostChangedEvent.tagRemoved(updatedBlog, tagName));
+                LOGGER.info("Tag {} removed from blog with id {}", tagName, id);
+                return updatedBlog;
+            }
+            LOGGER.error("Blog with id {} not found", id);
+            return null;
+        });
     }
 
     @Override
     public List<BlogPostDto> getBlogsByTag(String tagName) {
-        return blogPostMapper.toDtoList(blogPostRepository.findAllByTagsContains(tagName));
+        if (readModel.isServing()) {
+            return readModel.postsByTag(tagName);
+        }
+        return readOnlyTransaction.execute(status -> merge(shardRouter.onEachShard(() ->
+                blogPostMapper.toDtoList(blogPostRepository.findAllByTagsContains(tagName))), BlogPostDto::getId));
     }
 
+    /**
+     * Boolean tag query answered from the tag bitmap index. Paging walks the matching bitmap, so only the
+     * posts of the requested page are read from the database.
+     */
     @Override
-    public List<BlogPostSummaryDto> getSummarizedBlogs() {
-        List<BlogPost> blogPosts = blogPostRepository.findAll();
-        return blogPosts.stream()
-                .map(blogPostMapper::toSummaryDto)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPage<BlogPostDto> queryBlogsByTags(String query, String after, Integer limit) {
+        Roaring64Bitmap matches = tagBitmapIndex.evaluate(query);
+        return loadWithTags(findPage(after, limit,
+                (afterId, pageLimit) -> TagBitmapIndex.idsAfter(matches, afterId, pageLimit.max()),
+                Function.identity()));
+    }
+
+    @Override
+    public CursorPage<BlogPostSummaryDto> getSummarizedBlogs(String after, Integer limit) {
+        if (readModel.isServing()) {
+            return findPage(after, limit, (afterId, pageLimit) -> readModel.summariesAfter(afterId, pageLimit.max()),
+                    BlogPostSummaryDto::getId);
+        }
+        return readOnlyTransaction.execute(status -> findPage(after, limit, (afterId, pageLimit) ->
+                        merge(shardRouter.onEachShard(() -> blogPostRepository.findSummariesByIdGreaterThan(afterId, pageLimit)),
+                                BlogPostSummaryDto::getId),
+                BlogPostSummaryDto::getId));
+    }
+
+    /**
+     * Ranked keyword search. The index yields one page of ids; only those posts are read back, as
+     * summaries, and returned in rank order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SearchResultDto searchBlogs(String query, Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? paginationProperties.getDefaultLimit() : size;
+        if (pageNumber < 0 || pageSize < 1 || pageSize > searchProperties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Invalid page or size");
+        }
+        int offset;
+        try {
+            // the index collects offset + size hits, so both must fit into an int
+            offset = Math.multiplyExact(pageNumber, pageSize);
+            Math.addExact(offset, pageSize);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid page or size", e);
+        }
+        BlogSearchIndex.Hits hits = searchIndex.search(query, offset, pageSize);
+        List<BlogPostSummaryDto> items = List.of();
+        if (!hits.ids().isEmpty()) {
+            Map<Long, BlogPostSummaryDto> summaries = new HashMap<>();
+            shardRouter.onShardsOf(hits.ids(), blogPostRepository::findSummariesByIdIn)
+                    .forEach(summary -> summaries.put(summary.getId(), summary));
+            items = hits.ids().stream().map(summaries::get).filter(Objects::nonNull).toList();
+        }
+        return new SearchResultDto(items, hits.totalHits(), pageNumber, pageSize);
+    }
+
+    private CursorPage<BlogPostDto> loadWithTags(CursorPage<Long> ids) {
+        if (ids.getItems().isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        List<BlogPostDto> blogs = shardRouter.onShardsOf(ids.getItems(),
+                shardIds -> blogPostMapper.toDtoList(blogPostRepository.findWithTagsByIdIn(shardIds)));
+        if (shardRouter.isSharded()) {
+            blogs = new ArrayList<>(blogs);
+            blogs.sort(Comparator.comparing(BlogPostDto::getId));
+        }
+        return new CursorPage<>(blogs, ids.getNextCursor());
+    }
+
+    /**
+     * Combines per-shard results, each in id order, into one list in id order.
+     */
+    private static <T> List<T> merge(List<List<T>> perShard, Function<T, Long> idOf) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<T> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(Comparator.comparing(idOf));
+        return merged;
+    }
+
+    /**
+     * Loads one keyset page. One row more than requested is fetched to find out whether a next page
+     * exists without issuing a count query.
+     */
+    private <T> CursorPage<T> findPage(String after, Integer limit, BiFunction<Long, Limit, List<T>> query,
+                                       Function<T, Long> idOf) {
+        long afterId = CursorCodec.decode(after);
+        int pageSize = paginationProperties.resolve(limit);
+        List<T> items = query.apply(afterId, Limit.of(pageSize + 1));
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = CursorCodec.encode(idOf.apply(items.get(pageSize - 1)));
+        }
+        return new CursorPage<>(items, nextCursor);
     }
 }
@@ -0,0 +1,97 @@
+package com.scalefocus.blogapplication.service;
+
+import com.scalefocus.blogapplication.config.SummaryProperties;
+import com.scalefocus.blogapplication.dto.BlogPostTextView;
+import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills in {@code blog_posts.summary} for rows written before summaries were stored, one batch per
+ * transaction in id order. The update only applies while the summary is still missing, so a post
+ * edited in the meantime keeps the summary computed by its own write. The version is left alone:
+ * the summary is derived data and does not change what clients see as the post.
+ */
+@Component
+public class SummaryBackfill {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SummaryBackfill.class);
+
+    private final BlogPostRepository blogPostRepository;
+    private final SummaryGenerator summaryGenerator;
+    private final SummaryProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ShardRouter shardRouter;
+
+    public SummaryBackfill(BlogPostRepository blogPostRepository, SummaryGenerator summaryGenerator,
+                           SummaryProperties properties, JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.blogPostRepository = blogPostRepository;
+        this.summaryGenerator = summaryGenerator;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillInBackground() {
+        if (!properties.getBackfill().isEnabled()) {
+            return;
+        }
+        Thread backfill = new Thread(this::backfill, "summary-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Summarizes every post without a summary, shard by shard, and returns how many were updated.
+     */
+    public long backfill() {
+        long start = System.nanoTime();
+        long updated = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            updated += shardRouter.onShard(shard, this::backfillShard);
+        }
+        if (updated > 0) {
+            LOGGER.info("Summary backfill updated {} posts in {} ms", updated,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return updated;
+    }
+
+    private long backfillShard() {
+        long after = 0;
+        long updated = 0;
+        while (true) {
+            long from = after;
+            List<BlogPostTextView> batch = transaction.execute(status -> {
+                List<BlogPostTextView> posts = blogPostRepository.findTextWithoutSummaryByIdGreaterThan(from,
+                        Limit.of(properties.getBackfill().getBatchSize()));
+                jdbcTemplate.batchUpdate("UPDATE blog_posts SET summary = ? WHERE id = ? AND summary IS NULL",
+                        posts.stream()
+                                .map(post -> new Object[]{summaryGenerator.summarize(post.getContent()), post.getId()})
+                                .toList());
+                return posts;
+            });
+            if (batch.isEmpty()) {
+                break;
+            }
+            updated += batch.size();
+            after = batch.get(batch.size() - 1).getId();
+        }
+        return updated;
+    }
+}
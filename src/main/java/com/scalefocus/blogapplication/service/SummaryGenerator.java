@@ -0,0 +1,53 @@
+package com.scalefocus.blogapplication.service;
+
+import com.scalefocus.blogapplication.config.SummaryProperties;
+import com.scalefocus.blogapplication.model.BlogPost;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Builds the stored summary of a post: whitespace is collapsed to single spaces and content longer
+ * than {@code blog.summary.length} is shortened according to the configured strategy and marked with
+ * the ellipsis. Cuts never split a surrogate pair.
+ */
+@Component
+public class SummaryGenerator {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SummaryProperties properties;
+
+    public SummaryGenerator(SummaryProperties properties) {
+        if (properties.getLength() > BlogPost.SUMMARY_LENGTH) {
+            throw new IllegalStateException("blog.summary.length cannot exceed the column size of "
+                    + BlogPost.SUMMARY_LENGTH);
+        }
+        if (properties.getEllipsis().length() >= properties.getLength()) {
+            throw new IllegalStateException("blog.summary.ellipsis must be shorter than blog.summary.length");
+        }
+        this.properties = properties;
+    }
+
+    public String summarize(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = WHITESPACE.matcher(content).replaceAll(" ").strip();
+        if (text.length() <= properties.getLength()) {
+            return text;
+        }
+        int budget = properties.getLength() - properties.getEllipsis().length();
+        int cut = budget;
+        if (Character.isLowSurrogate(text.charAt(cut)) && Character.isHighSurrogate(text.charAt(cut - 1))) {
+            cut--;
+        }
+        if (properties.getStrategy() == SummaryProperties.Strategy.WORD && text.charAt(cut) != ' ') {
+            int space = text.lastIndexOf(' ', cut - 1);
+            if (space > 0) {
+                cut = space;
+            }
+        }
+        return text.substring(0, cut).stripTrailing() + properties.getEllipsis();
+    }
+}
@@ -0,0 +1,100 @@
+package com.scalefocus.blogapplication.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scalefocus.blogapplication.config.TagCacheProperties;
+import com.scalefocus.blogapplication.model.Tag;
+import com.scalefocus.blogapplication.repository.TagRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, concurrent tag name to id cache in front of {@link TagRepository#findByName(String)}.
+ * <p>
+ * Entries are only ever published once the transaction that produced them has committed, so the
+ * cache never hands out the id of a tag that was inserted by a transaction which later rolled back.
+ */
+@Component
+public class TagCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TagCache.class);
+    static final String CACHE_NAME = "tags";
+
+    private final TagRepository tagRepository;
+    private final TagCacheProperties properties;
+    private final Cache<String, Long> idsByName;
+
+    public TagCache(TagRepository tagRepository, TagCacheProperties properties, MeterRegistry meterRegistry) {
+        this.tagRepository = tagRepository;
+        this.properties = properties;
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, CACHE_NAME);
+    }
+
+    /**
+     * Returns the id of the tag with the given name, going to the database only on a cache miss.
+     *
+     * @return the tag id, or {@code null} if no such tag exists
+     */
+    public Long getId(String name) {
+        Long id = idsByName.getIfPresent(name);
+        if (id != null) {
+            return id;
+        }
+        id = tagRepository.findByName(name).map(Tag::getId).orElse(null);
+        if (id != null) {
+            put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the cached id for the given name without falling back to the database.
+     */
+    public Long getIfPresent(String name) {
+        return idsByName.getIfPresent(name);
+    }
+
+    /**
+     * Publishes a name to id mapping, deferred until the surrounding transaction commits.
+     */
+    public void put(String name, Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    idsByName.put(name, id);
+                }
+            });
+        } else {
+            idsByName.put(name, id);
+        }
+    }
+
+    public void evict(String name) {
+        idsByName.invalidate(name);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isWarmUp()) {
+            return;
+        }
+        int limit = (int) Math.min(properties.getMaximumSize(), Integer.MAX_VALUE);
+        tagRepository.findAllByOrderByIdAsc(Limit.of(limit))
+                .forEach(tag -> idsByName.put(tag.getName(), tag.getId()));
+        LOGGER.info("Tag cache warmed up with {} tags", idsByName.estimatedSize());
+    }
+}
@@ -3,7 +3,9 @@ package com.scalefocus.blogapplication.service;
 import com.scalefocus.blogapplication.dto.TagDto;
 import com.scalefocus.blogapplication.model.Tag;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface TagService {
     TagDto createTag(TagDto name);
@@ -15,4 +17,8 @@ public interface TagService {
     Tag toEntity(TagDto tagDto);
 
     Tag findOrCreateTag(Tag tag);
+
+    Map<String, Tag> resolveTags(Collection<String> names);
+
+    void createMissingTags(Collection<String> names);
 }
@@ -4,27 +4,57 @@ import com.scalefocus.blogapplication.dto.TagDto;
 import com.scalefocus.blogapplication.mapper.TagMapper;
 import com.scalefocus.blogapplication.model.Tag;
 import com.scalefocus.blogapplication.repository.TagRepository;
+import com.scalefocus.blogapplication.sharding.ShardDataSources;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TagServiceImpl implements TagService {
     private static final Logger LOGGER = LoggerFactory.getLogger(TagServiceImpl.class);
+    private static final int MAX_INSERT_ATTEMPTS = 3;
     private final TagRepository tagRepository;
     private final TagMapper tagMapper;
+    private final TagCache tagCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate shardTransaction;
+    private final ShardRouter shardRouter;
 
-    public TagServiceImpl(TagRepository tagRepository, TagMapper tagMapper) {
+    public TagServiceImpl(TagRepository tagRepository, TagMapper tagMapper, TagCache tagCache,
+                          PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
         this.tagRepository = tagRepository;
         this.tagMapper = tagMapper;
+        this.tagCache = tagCache;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardTransaction = new TransactionTemplate(transactionManager);
+        this.shardTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
     public TagDto createTag(TagDto tagDto) {
         Tag tag = tagMapper.toEntity(tagDto);
-        TagDto createdTag = tagMapper.toDto(tagRepository.save(tag));
+        tagCache.evict(tag.getName());
+        if (shardRouter.isSharded()) {
+            tag = insertTagsOnEveryShard(Set.of(tag.getName())).get(0);
+        }
+        TagDto createdTag = tagMapper.toDto(shardRouter.isSharded() ? tag : tagRepository.save(tag));
+        tagCache.put(createdTag.getName(), createdTag.getId());
         LOGGER.info("Tag with id {} created", createdTag.getId());
         return createdTag;
     }
@@ -41,7 +71,11 @@ public class TagServiceImpl implements TagService {
 
     @Override
     public TagDto getTagByName(String name) {
-        return tagMapper.toDto(tagRepository.findByName(name).orElse(null));
+        Long id = tagCache.getId(name);
+        if (id == null) {
+            return null;
+        }
+        return TagDto.builder().id(id).name(name).build();
     }
 
     @Override
@@ -51,6 +85,134 @@ public class TagServiceImpl implements TagService {
 
     @Override
     public Tag findOrCreateTag(Tag tag) {
-        return tagRepository.findByName(tag.getName()).orElseGet(() -> tagRepository.save(tag));
+        return resolveTags(List.of(tag.getName())).get(tag.getName());
+    }
+
+    /**
+     * Resolves a set of tag names to managed entities with a fixed number of statements: cached names
+     * are loaded by id and the rest are looked up with one {@code IN} query. Names that are still missing
+     * are inserted as by {@link #createMissingTags}, in the caller's transaction.
+     * <p>
+     * With sharding every shard holds every tag under the same id, see {@link #insertTagsOnEveryShard}.
+     */
+    @Override
+    public Map<String, Tag> resolveTags(Collection<String> names) {
+        Set<String> pending = new LinkedHashSet<>();
+        Set<Long> cachedIds = new HashSet<>();
+        for (String name : names) {
+            Long id = name == null ? null : tagCache.getIfPresent(name);
+            if (id != null) {
+                cachedIds.add(id);
+            } else if (name != null) {
+                pending.add(name);
+            }
+        }
+
+        Map<String, Tag> resolved = new HashMap<>();
+        if (!pending.isEmpty()) {
+            for (Tag tag : tagRepository.findByNameIn(pending)) {
+                resolved.put(tag.getName(), tag);
+                tagCache.put(tag.getName(), tag.getId());
+                pending.remove(tag.getName());
+            }
+        }
+        if (!pending.isEmpty()) {
+            insertMissingTags(pending).forEach(tag -> cachedIds.add(tag.getId()));
+        }
+        tagRepository.findAllByIdIn(cachedIds).forEach(tag -> resolved.put(tag.getName(), tag));
+        return resolved;
+    }
+
+    /**
+     * Inserts the tags among {@code names} that do not exist yet, as one batch.
+     * <p>
+     * Callers run this before they open the transaction that uses the tags, so that the insert commits on
+     * its own instead of needing a second connection while the caller's transaction holds the first. If a
+     * concurrent request inserted one of the same names first, the unique constraint on {@code tags.name}
+     * rejects the batch and the names are looked up again, now finding the competitor's rows. Called inside
+     * a transaction, the insert joins it and such a race fails the transaction.
+     */
+    @Override
+    public void createMissingTags(Collection<String> names) {
+        Set<String> pending = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null && tagCache.getIfPresent(name) == null) {
+                pending.add(name);
+            }
+        }
+        if (!pending.isEmpty()) {
+            insertMissingTags(pending);
+        }
+    }
+
+    /**
+     * @return the tags named {@code names}, both those found and those inserted
+     */
+    private List<Tag> insertMissingTags(Set<String> names) {
+        boolean retry = shardRouter.isSharded() || !TransactionSynchronizationManager.isActualTransactionActive();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return shardRouter.isSharded()
+                        ? insertTagsOnEveryShard(names)
+                        : transactionTemplate.execute(status -> findOrInsertTags(names));
+            } catch (DataIntegrityViolationException e) {
+                if (!retry || attempt >= MAX_INSERT_ATTEMPTS) {
+                    throw e;
+                }
+                LOGGER.info("Concurrent insert of tags {} detected, retrying lookup", names);
+            }
+        }
+    }
+
+    private List<Tag> findOrInsertTags(Set<String> names) {
+        List<Tag> existing = tagRepository.findByNameIn(names);
+        Set<String> missing = new LinkedHashSet<>(names);
+        existing.forEach(tag -> missing.remove(tag.getName()));
+        existing.forEach(tag -> tagCache.put(tag.getName(), tag.getId()));
+        List<Tag> all = new ArrayList<>(existing);
+        if (!missing.isEmpty()) {
+            all.addAll(insertTags(missing));
+        }
+        return all;
+    }
+
+    private List<Tag> insertTags(Set<String> names) {
+        List<Tag> tags = names.stream()
+                .map(name -> tagMapper.toEntity(TagDto.builder().name(name).build()))
+                .toList();
+        List<Tag> created = tagRepository.saveAllAndFlush(tags);
+        created.forEach(tag -> tagCache.put(tag.getName(), tag.getId()));
+        LOGGER.info("Tags {} created", names);
+        return created;
+    }
+
+    /**
+     * Inserts the missing names on the first shard, which assigns the ids, then copies the tags to every
+     * other shard that lacks them. Tags inserted by a concurrent request or an interrupted earlier attempt are
+     * copied as well, so a shard never stays without a tag the first shard has.
+     */
+    private List<Tag> insertTagsOnEveryShard(Set<String> names) {
+        List<Tag> tags = shardRouter.onShard(ShardDataSources.FIRST,
+                () -> shardTransaction.execute(status -> findOrInsertTags(names)));
+        for (int shard = ShardDataSources.FIRST + 1; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.onShard(shard, () -> shardTransaction.execute(status -> copyMissingTags(tags)));
+        }
+        tags.forEach(tag -> tagCache.put(tag.getName(), tag.getId()));
+        return tags;
+    }
+
+    private List<Tag> copyMissingTags(List<Tag> tags) {
+        Set<Long> present = new HashSet<>();
+        tagRepository.findAllById(tags.stream().map(Tag::getId).toList()).forEach(tag -> present.add(tag.getId()));
+        List<Tag> copies = tags.stream()
+                .filter(tag -> !present.contains(tag.getId()))
+                .map(tag -> {
+                    Tag copy = new Tag();
+                    copy.setId(tag.getId());
+                    copy.setName(tag.getName());
+                    return copy;
+                })
+                .toList();
+        return tagRepository.saveAllAndFlush(copies);
     }
 }
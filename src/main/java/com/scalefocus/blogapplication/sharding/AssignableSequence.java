@@ -0,0 +1,24 @@
+package com.scalefocus.blogapplication.sharding;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Pooled sequence identifier, like {@code @SequenceGenerator}, that keeps an id assigned before persisting
+ * when sharding is enabled, see {@link AssignableSequenceGenerator}.
+ */
+@IdGeneratorType(AssignableSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface AssignableSequence {
+
+    String name();
+
+    int allocationSize() default 50;
+}
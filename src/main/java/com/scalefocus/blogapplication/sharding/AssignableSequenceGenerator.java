@@ -0,0 +1,60 @@
+package com.scalefocus.blogapplication.sharding;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * {@link SequenceStyleGenerator} that, with {@value #ASSIGNED_IDS} set, leaves an id that was assigned
+ * before the entity was persisted in place. Sharding needs this twice: post ids are handed out by
+ * {@link GlobalIdAllocator} so the shard is known before the insert, and replicated tags are copied to
+ * every shard under the id the first shard gave them. Without the setting it behaves exactly like
+ * {@code @SequenceGenerator}.
+ */
+public class AssignableSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * Hibernate setting, put in place by {@code ShardingConfig}.
+     */
+    public static final String ASSIGNED_IDS = "blog.sharding.assigned-ids";
+
+    private final AssignableSequence config;
+    private boolean assignedIds;
+
+    public AssignableSequenceGenerator(AssignableSequence config, Member member, CustomIdGeneratorCreationContext context) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, config.name());
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        super.configure(type, parameters, serviceRegistry);
+        assignedIds = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ASSIGNED_IDS, StandardConverters.BOOLEAN, false);
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return assignedIds;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (assignedIds) {
+            Object assigned = session.getEntityPersister(null, object).getIdentifier(object, session);
+            if (assigned != null) {
+                return assigned;
+            }
+        }
+        return super.generate(session, object);
+    }
+}
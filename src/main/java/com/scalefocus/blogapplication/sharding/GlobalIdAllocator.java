@@ -0,0 +1,36 @@
+package com.scalefocus.blogapplication.sharding;
+
+import org.hibernate.dialect.Dialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Hands out ids from a sequence on the first shard, so they are unique across all shards and known before
+ * the post is written, which is what decides its shard. Like Hibernate's pooled optimizer, each sequence
+ * value reserves the {@code allocationSize} ids up to and including it, so one round trip serves a block of
+ * ids and none handed out before sharding was enabled are reused.
+ */
+public class GlobalIdAllocator {
+
+    private final JdbcTemplate firstShard;
+    private final String nextValueSql;
+    private final int allocationSize;
+    private long next;
+    private long end;
+
+    public GlobalIdAllocator(DataSource firstShard, Dialect dialect, String sequence, int allocationSize) {
+        this.firstShard = new JdbcTemplate(firstShard);
+        this.nextValueSql = dialect.getSequenceSupport().getSequenceNextValString(sequence);
+        this.allocationSize = allocationSize;
+    }
+
+    public synchronized long next() {
+        if (next >= end) {
+            long value = firstShard.queryForObject(nextValueSql, Long.class);
+            next = Math.max(1, value - allocationSize + 1);
+            end = value + 1;
+        }
+        return next++;
+    }
+}
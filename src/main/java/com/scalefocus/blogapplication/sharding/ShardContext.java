@@ -0,0 +1,36 @@
+package com.scalefocus.blogapplication.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's connections are taken from, see {@link ShardRoutingDataSource}. Must be
+ * set before the transaction that should run on the shard begins.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return the current shard, or {@code null} outside of {@link #on(int, Supplier)}
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T on(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.scalefocus.blogapplication.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * One connection pool per shard, indexed by shard number. The first shard also holds what exists only
+ * once: the bucket map and the id sequences.
+ */
+public class ShardDataSources implements AutoCloseable {
+
+    public static final int FIRST = 0;
+
+    private final List<HikariDataSource> dataSources;
+
+    public ShardDataSources(List<HikariDataSource> dataSources) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public DataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,119 @@
+package com.scalefocus.blogapplication.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Which shard owns which bucket of post ids, stored in {@value #TABLE} on the first shard.
+ * <p>
+ * A post's bucket is its id modulo the bucket count. Ids are handed out as runs of consecutive numbers, so
+ * consecutive posts land in different buckets, and SQL can select a bucket with {@code MOD}. When the map is
+ * first created the buckets are spread round-robin over the shards, unless the first shard already holds
+ * posts: then every bucket starts there, where those posts are, and {@link ShardRebalancer} spreads them.
+ * <p>
+ * The map is read once at startup. A bucket moved by another instance is only seen after a restart.
+ */
+public class ShardMap {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardMap.class);
+    static final String TABLE = "shard_buckets";
+
+    private final JdbcTemplate firstShard;
+    private final int shardCount;
+    private volatile int[] shardByBucket;
+
+    public ShardMap(ShardDataSources shards, int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("At least one bucket is required");
+        }
+        this.firstShard = new JdbcTemplate(shards.get(ShardDataSources.FIRST));
+        this.shardCount = shards.count();
+        firstShard.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (bucket INT PRIMARY KEY, shard INT NOT NULL)");
+        this.shardByBucket = load(buckets);
+    }
+
+    public int bucketCount() {
+        return shardByBucket.length;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int bucketOf(long postId) {
+        return (int) Math.floorMod(postId, (long) shardByBucket.length);
+    }
+
+    public int shardOf(long postId) {
+        return shardByBucket[bucketOf(postId)];
+    }
+
+    public int shardOfBucket(int bucket) {
+        return shardByBucket[bucket];
+    }
+
+    /**
+     * Routes the bucket to {@code shard} from now on. Moving the posts is up to the caller.
+     */
+    void assign(int bucket, int shard) {
+        firstShard.update("UPDATE " + TABLE + " SET shard = ? WHERE bucket = ?", shard, bucket);
+        int[] updated = shardByBucket.clone();
+        updated[bucket] = shard;
+        shardByBucket = updated;
+    }
+
+    private int[] load(int buckets) {
+        int[] stored = read();
+        if (stored.length == 0) {
+            try {
+                create(buckets);
+            } catch (DuplicateKeyException e) {
+                LOGGER.info("Bucket map was created concurrently, reading it");
+            }
+            stored = read();
+        }
+        if (stored.length != buckets) {
+            throw new IllegalStateException("The bucket map has " + stored.length + " buckets but "
+                    + buckets + " are configured; the bucket count cannot change once posts are placed");
+        }
+        for (int bucket = 0; bucket < stored.length; bucket++) {
+            if (stored[bucket] < 0 || stored[bucket] >= shardCount) {
+                throw new IllegalStateException("Bucket " + bucket + " is on shard " + stored[bucket]
+                        + " but only " + shardCount + " shards are configured");
+            }
+        }
+        return stored;
+    }
+
+    private int[] read() {
+        List<int[]> rows = firstShard.query("SELECT bucket, shard FROM " + TABLE + " ORDER BY bucket",
+                (rs, rowNum) -> new int[]{rs.getInt("bucket"), rs.getInt("shard")});
+        int[] shards = new int[rows.size()];
+        Arrays.fill(shards, -1);
+        for (int[] row : rows) {
+            if (row[0] < 0 || row[0] >= shards.length) {
+                throw new IllegalStateException("The bucket map is not numbered from 0: found bucket " + row[0]);
+            }
+            shards[row[0]] = row[1];
+        }
+        return shards;
+    }
+
+    private void create(int buckets) {
+        Boolean hasPosts = firstShard.query("SELECT id FROM blog_posts FETCH FIRST 1 ROWS ONLY", ResultSet::next);
+        List<Object[]> rows = new ArrayList<>(buckets);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            rows.add(new Object[]{bucket, Boolean.TRUE.equals(hasPosts) ? ShardDataSources.FIRST : bucket % shardCount});
+        }
+        firstShard.batchUpdate("INSERT INTO " + TABLE + " (bucket, shard) VALUES (?, ?)", rows);
+        LOGGER.info("Created bucket map with {} buckets over {} shards{}", buckets, shardCount,
+                Boolean.TRUE.equals(hasPosts) ? ", all on the first shard because it already holds posts" : "");
+    }
+}
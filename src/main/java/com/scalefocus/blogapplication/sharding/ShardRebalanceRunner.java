@@ -0,0 +1,44 @@
+package com.scalefocus.blogapplication.sharding;
+
+import com.scalefocus.blogapplication.config.ShardingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Spreads buckets evenly over the configured shards on startup, e.g. after adding a shard:
+ * {@code java -jar blog.jar --spring.profiles.active=rebalance --blog.sharding.rebalance.exit-on-completion=true}.
+ */
+@Component
+@Profile("rebalance")
+public class ShardRebalanceRunner implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardRebalanceRunner.class);
+
+    private final Optional<ShardRebalancer> rebalancer;
+    private final ShardingProperties properties;
+    private final ApplicationContext applicationContext;
+
+    public ShardRebalanceRunner(Optional<ShardRebalancer> rebalancer, ShardingProperties properties,
+                                ApplicationContext applicationContext) {
+        this.rebalancer = rebalancer;
+        this.properties = properties;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebalancer.ifPresentOrElse(ShardRebalancer::rebalance,
+                () -> LOGGER.warn("Sharding is disabled, nothing to rebalance"));
+        if (properties.getRebalance().isExitOnCompletion()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.scalefocus.blogapplication.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves buckets of posts between shards. Rows are copied with plain JDBC, so content is moved in its stored,
+ * possibly compressed, form and versions are kept.
+ * <p>
+ * A move copies the bucket in batches, switches the bucket over in the {@link ShardMap}, copies again
+ * whatever changed on the old shard in the meantime and then deletes the bucket there. Copies replace the
+ * rows they write, so a move that failed half way can simply be run again. A write that is still running on
+ * the old shard when the bucket switches can be lost, and other instances keep routing to the old shard until
+ * restarted, so rebalancing is meant to run in a quiet period, e.g. with the {@code rebalance} profile.
+ */
+public class ShardRebalancer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardRebalancer.class);
+    private static final String SELECT_POSTS = "SELECT id, version, title, content, summary FROM blog_posts ";
+    private static final RowMapper<Object[]> POST_ROW = (rs, rowNum) -> new Object[]{rs.getLong("id"),
+            rs.getLong("version"), rs.getString("title"), rs.getString("content"), rs.getString("summary")};
+
+    private final ShardMap shardMap;
+    private final ShardDataSources shards;
+    private final int batchSize;
+
+    public ShardRebalancer(ShardMap shardMap, ShardDataSources shards, int batchSize) {
+        this.shardMap = shardMap;
+        this.shards = shards;
+        this.batchSize = batchSize;
+    }
+
+    public record Move(int bucket, int from, int to) {
+    }
+
+    /**
+     * Buckets to move so that every shard owns the same number of buckets, give or take one.
+     */
+    public List<Move> plan() {
+        int shardCount = shardMap.shardCount();
+        List<Deque<Integer>> owned = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            owned.add(new ArrayDeque<>());
+        }
+        for (int bucket = 0; bucket < shardMap.bucketCount(); bucket++) {
+            owned.get(shardMap.shardOfBucket(bucket)).add(bucket);
+        }
+        int[] quota = new int[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            quota[shard] = shardMap.bucketCount() / shardCount + (shard < shardMap.bucketCount() % shardCount ? 1 : 0);
+        }
+        Deque<Integer> surplus = new ArrayDeque<>();
+        Map<Integer, Integer> surplusOwner = new HashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            while (owned.get(shard).size() > quota[shard]) {
+                int bucket = owned.get(shard).pollLast();
+                surplus.add(bucket);
+                surplusOwner.put(bucket, shard);
+            }
+        }
+        List<Move> moves = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int missing = quota[shard] - owned.get(shard).size(); missing > 0 && !surplus.isEmpty(); missing--) {
+                int bucket = surplus.poll();
+                moves.add(new Move(bucket, surplusOwner.get(bucket), shard));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Carries out {@link #plan()} and returns the number of posts moved.
+     */
+    public long rebalance() {
+        long start = System.nanoTime();
+        List<Move> moves = plan();
+        long posts = 0;
+        for (Move move : moves) {
+            posts += moveBucket(move.bucket(), move.to());
+        }
+        LOGGER.info("Rebalanced {} buckets with {} posts over {} shards in {} ms", moves.size(), posts,
+                shardMap.shardCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return posts;
+    }
+
+    /**
+     * Moves one bucket to {@code target} and returns the number of posts moved.
+     */
+    public long moveBucket(int bucket, int target) {
+        int source = shardMap.shardOfBucket(bucket);
+        if (source == target) {
+            return 0;
+        }
+        Shard from = new Shard(source);
+        Shard to = new Shard(target);
+        copyMissingTags(to);
+
+        long copied = 0;
+        long after = 0;
+        while (true) {
+            List<Object[]> posts = from.jdbc.query(SELECT_POSTS + "WHERE MOD(id, ?) = ? AND id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                    POST_ROW, shardMap.bucketCount(), bucket, after, batchSize);
+            if (posts.isEmpty()) {
+                break;
+            }
+            long last = (Long) posts.get(posts.size() - 1)[0];
+            copy(from, to, bucket, after + 1, last, posts);
+            copied += posts.size();
+            after = last;
+        }
+
+        shardMap.assign(bucket, target);
+        long caughtUp = catchUp(from, to, bucket);
+        from.transaction.executeWithoutResult(status -> {
+            from.jdbc.update("DELETE FROM blog_post_tags WHERE MOD(blog_post_id, ?) = ?", shardMap.bucketCount(), bucket);
+            from.jdbc.update("DELETE FROM blog_posts WHERE MOD(id, ?) = ?", shardMap.bucketCount(), bucket);
+        });
+        LOGGER.info("Moved bucket {} from shard {} to shard {}: {} posts, {} changed during the move", bucket,
+                source, target, copied, caughtUp);
+        return copied;
+    }
+
+    /**
+     * Brings the new shard in line with posts written to or deleted from the old one while it was copied.
+     */
+    private long catchUp(Shard from, Shard to, int bucket) {
+        Map<Long, Long> sourceVersions = versions(from, bucket);
+        Map<Long, Long> targetVersions = versions(to, bucket);
+        List<Long> changed = sourceVersions.entrySet().stream()
+                .filter(entry -> !Objects.equals(entry.getValue(), targetVersions.get(entry.getKey())))
+                .map(Map.Entry::getKey)
+                .toList();
+        Set<Long> deleted = new HashSet<>(targetVersions.keySet());
+        deleted.removeAll(sourceVersions.keySet());
+        for (Long id : changed) {
+            copy(from, to, bucket, id, id, from.jdbc.query(SELECT_POSTS + "WHERE id = ?", POST_ROW, id));
+        }
+        to.transaction.executeWithoutResult(status -> deleted.forEach(id -> {
+            to.jdbc.update("DELETE FROM blog_post_tags WHERE blog_post_id = ?", id);
+            to.jdbc.update("DELETE FROM blog_posts WHERE id = ?", id);
+        }));
+        return changed.size() + deleted.size();
+    }
+
+    /**
+     * Replaces the bucket's posts with ids in {@code [first, last]} on {@code to} by {@code posts} and their
+     * tags from {@code from}.
+     */
+    private void copy(Shard from, Shard to, int bucket, long first, long last, List<Object[]> posts) {
+        List<Object[]> postTags = from.jdbc.query("SELECT blog_post_id, tag_id FROM blog_post_tags "
+                        + "WHERE MOD(blog_post_id, ?) = ? AND blog_post_id BETWEEN ? AND ?",
+                (rs, rowNum) -> new Object[]{rs.getLong("blog_post_id"), rs.getLong("tag_id")},
+                shardMap.bucketCount(), bucket, first, last);
+        to.transaction.executeWithoutResult(status -> {
+            to.jdbc.update("DELETE FROM blog_post_tags WHERE MOD(blog_post_id, ?) = ? AND blog_post_id BETWEEN ? AND ?",
+                    shardMap.bucketCount(), bucket, first, last);
+            to.jdbc.update("DELETE FROM blog_posts WHERE MOD(id, ?) = ? AND id BETWEEN ? AND ?",
+                    shardMap.bucketCount(), bucket, first, last);
+            to.jdbc.batchUpdate("INSERT INTO blog_posts (id, version, title, content, summary) VALUES (?, ?, ?, ?, ?)",
+                    posts);
+            to.jdbc.batchUpdate("INSERT INTO blog_post_tags (blog_post_id, tag_id) VALUES (?, ?)", postTags);
+        });
+    }
+
+    /**
+     * Tags are replicated, but a shard added to an existing database lacks the tags created before it.
+     */
+    private void copyMissingTags(Shard to) {
+        Shard first = new Shard(ShardDataSources.FIRST);
+        Set<Long> present = new HashSet<>(to.jdbc.queryForList("SELECT id FROM tags", Long.class));
+        List<Object[]> missing = first.jdbc.query("SELECT id, version, name FROM tags",
+                        (rs, rowNum) -> new Object[]{rs.getLong("id"), rs.getLong("version"), rs.getString("name")})
+                .stream()
+                .filter(tag -> !present.contains((Long) tag[0]))
+                .toList();
+        if (!missing.isEmpty()) {
+            to.jdbc.batchUpdate("INSERT INTO tags (id, version, name) VALUES (?, ?, ?)", missing);
+            LOGGER.info("Copied {} tags to the target shard", missing.size());
+        }
+    }
+
+    private Map<Long, Long> versions(Shard shard, int bucket) {
+        Map<Long, Long> versions = new HashMap<>();
+        RowCallbackHandler collect = row -> versions.put(row.getLong("id"), row.getLong("version"));
+        shard.jdbc.query("SELECT id, version FROM blog_posts WHERE MOD(id, ?) = ?", collect, shardMap.bucketCount(), bucket);
+        return versions;
+    }
+
+    private final class Shard {
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate transaction;
+
+        private Shard(int shard) {
+            this.jdbc = new JdbcTemplate(shards.get(shard));
+            this.transaction = new TransactionTemplate(new DataSourceTransactionManager(shards.get(shard)));
+        }
+    }
+}
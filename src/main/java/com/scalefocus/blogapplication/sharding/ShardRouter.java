@@ -0,0 +1,183 @@
+package com.scalefocus.blogapplication.sharding;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs post data access on the shard that holds it. Without sharding there is a single shard and every
+ * method simply runs the given work in the caller's transaction.
+ * <p>
+ * With sharding, work on a post or on every shard runs in a transaction of its own per shard, started after
+ * the shard has been selected, and read-only if the calling transaction is. The caller's transaction never
+ * touches a connection then; results, and events published by the work, belong to the shard's transaction,
+ * so entities must be mapped before the work returns. Shards are visited one after the other on the calling
+ * thread, which keeps per-request SQL accounting intact.
+ */
+@Component
+public class ShardRouter {
+
+    private final ShardMap shardMap;
+    private final GlobalIdAllocator postIds;
+    private final TitleRegistry titles;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate newReadOnlyTransaction;
+
+    public ShardRouter(Optional<ShardMap> shardMap, Optional<GlobalIdAllocator> postIds,
+                       Optional<TitleRegistry> titles, PlatformTransactionManager transactionManager) {
+        this.shardMap = shardMap.orElse(null);
+        this.postIds = postIds.orElse(null);
+        this.titles = titles.orElse(null);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newReadOnlyTransaction = new TransactionTemplate(transactionManager, newTransaction);
+        this.newReadOnlyTransaction.setReadOnly(true);
+    }
+
+    public static ShardRouter unsharded() {
+        return new ShardRouter(Optional.empty(), Optional.empty(), Optional.empty(), null);
+    }
+
+    public boolean isSharded() {
+        return shardMap != null;
+    }
+
+    public int shardCount() {
+        return isSharded() ? shardMap.shardCount() : 1;
+    }
+
+    public int shardOf(Long postId) {
+        return isSharded() && postId != null ? shardMap.shardOf(postId) : ShardDataSources.FIRST;
+    }
+
+    /**
+     * @return the id for a new post, or {@code null} without sharding, where the insert generates it
+     */
+    public Long nextPostId() {
+        return isSharded() ? postIds.next() : null;
+    }
+
+    /**
+     * Runs {@code action} with its connections taken from {@code shard}; the action starts its own
+     * transactions. For background work that walks every shard, and for tags, which exist on every shard.
+     */
+    public <T> T onShard(int shard, Supplier<T> action) {
+        return isSharded() ? ShardContext.on(shard, action) : action.get();
+    }
+
+    public void forEachShard(Runnable action) {
+        for (int shard = 0; shard < shardCount(); shard++) {
+            onShard(shard, () -> {
+                action.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs {@code action}, which writes post {@code postId} with {@code title}, with the title reserved in
+     * the {@link TitleRegistry}, as a unique index on one shard does not keep other shards from using it.
+     * Once the action has written the post, any other title the post had is released; if it fails or
+     * returns {@code null} because there was no post to write, a title reserved just for it is released.
+     * Without sharding the unique index covers every post and this simply runs the action.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if another post uses the title
+     */
+    public <T> T withTitle(Long postId, String title, Supplier<T> action) {
+        if (!isSharded() || postId == null || title == null) {
+            return action.get();
+        }
+        boolean reserved = titles.reserve(title, postId);
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            if (reserved) {
+                titles.release(title, postId);
+            }
+            throw e;
+        }
+        if (result != null) {
+            titles.releaseAllBut(postId, title);
+        } else if (reserved) {
+            titles.release(title, postId);
+        }
+        return result;
+    }
+
+    /**
+     * Reserves {@code title} for a post about to be written, for callers that release it themselves with
+     * {@link #releaseTitles} if the write fails, see {@link #withTitle}.
+     */
+    public void reserveTitle(Long postId, String title) {
+        if (isSharded() && title != null) {
+            titles.reserve(title, postId);
+        }
+    }
+
+    /**
+     * Releases the titles of a deleted post, or of one that could not be written.
+     */
+    public void releaseTitles(Long postId) {
+        if (isSharded()) {
+            titles.releaseAll(postId);
+        }
+    }
+
+    /**
+     * Runs {@code action} on the shard of {@code postId}, see the class comment.
+     */
+    public <T> T onShardOf(Long postId, Supplier<T> action) {
+        if (!isSharded() || postId == null) {
+            return action.get();
+        }
+        return inTransactionOn(shardMap.shardOf(postId), action);
+    }
+
+    /**
+     * Runs {@code action} once on every shard and returns the results in shard order.
+     */
+    public <T> List<T> onEachShard(Supplier<T> action) {
+        if (!isSharded()) {
+            return List.of(action.get());
+        }
+        List<T> results = new ArrayList<>(shardMap.shardCount());
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            results.add(inTransactionOn(shard, action));
+        }
+        return results;
+    }
+
+    /**
+     * Runs {@code query} once per shard holding any of {@code postIds}, with the ids on that shard, and
+     * concatenates the results. The order across shards is not defined.
+     */
+    public <T> List<T> onShardsOf(Collection<Long> postIds, Function<List<Long>, List<T>> query) {
+        if (!isSharded()) {
+            return query.apply(postIds instanceof List<Long> list ? list : List.copyOf(postIds));
+        }
+        Map<Integer, List<Long>> idsByShard = new LinkedHashMap<>();
+        postIds.forEach(id -> idsByShard.computeIfAbsent(shardMap.shardOf(id), shard -> new ArrayList<>()).add(id));
+        List<T> results = new ArrayList<>(postIds.size());
+        idsByShard.forEach((shard, ids) -> results.addAll(inTransactionOn(shard, () -> query.apply(ids))));
+        return results;
+    }
+
+    private <T> T inTransactionOn(int shard, Supplier<T> action) {
+        TransactionTemplate transaction = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? newReadOnlyTransaction
+                : newTransaction;
+        return ShardContext.on(shard, () -> transaction.execute(status -> action.get()));
+    }
+}
@@ -0,0 +1,151 @@
+package com.scalefocus.blogapplication.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Post titles in use across all shards, stored in {@value #TABLE} on the first shard. The unique index on
+ * {@code blog_posts.title} only covers the shard it lives on, so a title is reserved here, in a statement
+ * of its own, before a post is written with it, and released once no post carries it any more.
+ * <p>
+ * A reservation outlives its post only if the process stopped between the two steps. Such a reservation
+ * is taken over by the next post asking for the title once it is older than the reservation timeout and
+ * its post no longer has the title. When the table is first created it is filled from every shard.
+ */
+public class TitleRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TitleRegistry.class);
+    static final String TABLE = "post_titles";
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+    private static final int FILL_BATCH_SIZE = 500;
+
+    private final ShardDataSources shards;
+    private final ShardMap shardMap;
+    private final JdbcTemplate firstShard;
+    private final Duration reservationTimeout;
+
+    public TitleRegistry(ShardDataSources shards, ShardMap shardMap, Duration reservationTimeout) {
+        this.shards = shards;
+        this.shardMap = shardMap;
+        this.firstShard = new JdbcTemplate(shards.get(ShardDataSources.FIRST));
+        this.reservationTimeout = reservationTimeout;
+        firstShard.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (title VARCHAR(255) PRIMARY KEY, "
+                + "post_id BIGINT NOT NULL, reserved_at TIMESTAMP NOT NULL)");
+        Integer registered = firstShard.queryForObject("SELECT COUNT(*) FROM " + TABLE, Integer.class);
+        if (registered == null || registered == 0) {
+            fill();
+        }
+    }
+
+    /**
+     * Reserves {@code title} for {@code postId}.
+     *
+     * @return whether the title was reserved now, {@code false} if the post already held it
+     * @throws DuplicateKeyException if another post holds the title
+     */
+    public boolean reserve(String title, long postId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                firstShard.update("INSERT INTO " + TABLE + " (title, post_id, reserved_at) VALUES (?, ?, ?)",
+                        title, postId, new Timestamp(System.currentTimeMillis()));
+                return true;
+            } catch (DuplicateKeyException e) {
+                List<Map<String, Object>> holders = firstShard.queryForList(
+                        "SELECT post_id, reserved_at FROM " + TABLE + " WHERE title = ?", title);
+                if (!holders.isEmpty()) {
+                    long holder = ((Number) holders.get(0).get("post_id")).longValue();
+                    Timestamp reservedAt = (Timestamp) holders.get(0).get("reserved_at");
+                    if (holder == postId) {
+                        return false;
+                    }
+                    if (attempt >= MAX_RESERVE_ATTEMPTS || !isStale(title, holder, reservedAt)) {
+                        throw new DuplicateKeyException("Title '" + title + "' is already used by blog " + holder);
+                    }
+                    LOGGER.info("Taking over the stale reservation of title '{}' by blog {}", title, holder);
+                    firstShard.update("DELETE FROM " + TABLE + " WHERE title = ? AND post_id = ? AND reserved_at = ?",
+                            title, holder, reservedAt);
+                }
+            }
+        }
+    }
+
+    public void release(String title, long postId) {
+        firstShard.update("DELETE FROM " + TABLE + " WHERE title = ? AND post_id = ?", title, postId);
+    }
+
+    /**
+     * Releases every title of {@code postId} but {@code title}, which is left as it is.
+     */
+    public void releaseAllBut(long postId, String title) {
+        firstShard.update("DELETE FROM " + TABLE + " WHERE post_id = ? AND title <> ?", postId, title);
+    }
+
+    public void releaseAll(long postId) {
+        firstShard.update("DELETE FROM " + TABLE + " WHERE post_id = ?", postId);
+    }
+
+    private boolean isStale(String title, long holder, Timestamp reservedAt) {
+        if (reservedAt.toInstant().plus(reservationTimeout).isAfter(Instant.now())) {
+            return false;
+        }
+        Integer carried = new JdbcTemplate(shards.get(shardMap.shardOf(holder))).queryForObject(
+                "SELECT COUNT(*) FROM blog_posts WHERE id = ? AND title = ?", Integer.class, holder, title);
+        return carried != null && carried == 0;
+    }
+
+    private void fill() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long[] filled = {0};
+        for (int shard = 0; shard < shards.count(); shard++) {
+            List<Object[]> batch = new ArrayList<>(FILL_BATCH_SIZE);
+            new JdbcTemplate(shards.get(shard)).query("SELECT id, title FROM blog_posts", (RowCallbackHandler) rs -> {
+                batch.add(new Object[]{rs.getString("title"), rs.getLong("id"), now});
+                if (batch.size() == FILL_BATCH_SIZE) {
+                    filled[0] += insert(batch);
+                    batch.clear();
+                }
+            });
+            filled[0] += insert(batch);
+        }
+        LOGGER.info("Registered {} post titles from {} shards", filled[0], shards.count());
+    }
+
+    /**
+     * Inserts a batch, falling back to one row at a time if a title is already registered, which happens
+     * when another instance fills the table concurrently or when shards already share a title.
+     */
+    private int insert(List<Object[]> rows) {
+        String insert = "INSERT INTO " + TABLE + " (title, post_id, reserved_at) VALUES (?, ?, ?)";
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            firstShard.batchUpdate(insert, rows);
+            return rows.size();
+        } catch (DuplicateKeyException e) {
+            int inserted = 0;
+            for (Object[] row : rows) {
+                try {
+                    inserted += firstShard.update(insert, row);
+                } catch (DuplicateKeyException duplicate) {
+                    Long holder = firstShard.queryForObject("SELECT post_id FROM " + TABLE + " WHERE title = ?",
+                            Long.class, row[0]);
+                    if (!row[1].equals(holder)) {
+                        LOGGER.warn("Title '{}' of blog {} is already registered for blog {}", row[0], row[1], holder);
+                    }
+                }
+            }
+            return inserted;
+        }
+    }
+}
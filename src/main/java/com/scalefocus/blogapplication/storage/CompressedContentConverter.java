@@ -0,0 +1,28 @@
+package com.scalefocus.blogapplication.storage;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Applies {@link ContentCodec} to {@code BlogPost.content}. Hibernate obtains it from the Spring bean
+ * factory, which supplies the codec.
+ */
+@Converter
+public class CompressedContentConverter implements AttributeConverter<String, String> {
+
+    private final ContentCodec contentCodec;
+
+    public CompressedContentConverter(ContentCodec contentCodec) {
+        this.contentCodec = contentCodec;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String content) {
+        return contentCodec.encode(content);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String stored) {
+        return contentCodec.decode(stored);
+    }
+}
@@ -0,0 +1,181 @@
+package com.scalefocus.blogapplication.storage;
+
+import com.scalefocus.blogapplication.config.ContentCompressionProperties;
+import com.scalefocus.blogapplication.config.ContentCompressionProperties.Algorithm;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Storage form of post content. Compressed values are written as {@value #PREFIX}, the algorithm name,
+ * a colon and the Base64 of the compressed UTF-8 bytes, which keeps them in the existing text column.
+ * Anything without the prefix is plain text, so rows written before compression was enabled, or below
+ * the threshold, are read unchanged. Plain text that happens to start with the prefix is always
+ * compressed so that it cannot be mistaken for an encoded value.
+ * <p>
+ * With {@code blog.content.log.enabled}, content above that log's threshold is appended to the
+ * {@link ContentLog} instead and only a {@link ContentReference} is stored. Every stored form starts with
+ * {@link #MARKER}, so references and compressed values can be told apart from plain text and each other.
+ * <p>
+ * Every compressed write records its ratio (UTF-8 bytes over stored bytes) as
+ * {@value #RATIO_METRIC}, and every compressed read its decode time as {@value #DECODE_METRIC}.
+ */
+@Component
+public class ContentCodec {
+
+    static final String MARKER = "\u001B";
+    static final String PREFIX = MARKER + "z:";
+    static final String RATIO_METRIC = "blog.content.compression.ratio";
+    static final String DECODE_METRIC = "blog.content.decode";
+
+    private final ContentCompressionProperties properties;
+    private final ContentLog contentLog;
+    private final Map<Algorithm, DistributionSummary> ratios = new EnumMap<>(Algorithm.class);
+    private final Map<Algorithm, Timer> decodeTimers = new EnumMap<>(Algorithm.class);
+
+    public ContentCodec(ContentCompressionProperties properties, ContentLog contentLog, MeterRegistry meterRegistry) {
+        if (properties.getLevel() < Deflater.BEST_SPEED || properties.getLevel() > Deflater.BEST_COMPRESSION) {
+            throw new IllegalStateException("blog.content.compression.level must be between 1 and 9");
+        }
+        this.properties = properties;
+        this.contentLog = contentLog;
+        for (Algorithm algorithm : Algorithm.values()) {
+            String name = algorithm.name().toLowerCase(Locale.ROOT);
+            ratios.put(algorithm, DistributionSummary.builder(RATIO_METRIC)
+                    .description("Uncompressed over stored size of compressed post content")
+                    .tag("algorithm", name)
+                    .register(meterRegistry));
+            decodeTimers.put(algorithm, Timer.builder(DECODE_METRIC)
+                    .description("Time spent decompressing post content on read")
+                    .tag("algorithm", name)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * The value to store for {@code text}: a reference into the content log or compressed when enabled
+     * and large enough to be worth it, otherwise the text itself.
+     */
+    public String encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        boolean ambiguous = text.startsWith(MARKER);
+        if (!ambiguous && !properties.isEnabled() && !contentLog.isEnabled()) {
+            return text;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (contentLog.accepts(raw.length)) {
+            return contentLog.append(raw).toString();
+        }
+        if (!ambiguous && !properties.isEnabled()) {
+            return text;
+        }
+        if (!ambiguous && raw.length < properties.getThreshold()) {
+            return text;
+        }
+        Algorithm algorithm = properties.getAlgorithm();
+        String encoded = PREFIX + algorithm.name().toLowerCase(Locale.ROOT) + ':'
+                + Base64.getEncoder().encodeToString(compress(algorithm, raw));
+        if (!ambiguous && encoded.length() >= raw.length) {
+            return text;
+        }
+        ratios.get(algorithm).record((double) raw.length / encoded.length());
+        return encoded;
+    }
+
+    public String decode(String stored) {
+        if (ContentReference.isReference(stored)) {
+            return contentLog.readString(ContentReference.parse(stored));
+        }
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+        int separator = stored.indexOf(':', PREFIX.length());
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed compressed content");
+        }
+        Algorithm algorithm = Algorithm.valueOf(stored.substring(PREFIX.length(), separator).toUpperCase(Locale.ROOT));
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(separator + 1));
+        return decodeTimers.get(algorithm).record(() -> new String(decompress(algorithm, compressed), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The UTF-8 bytes of the stored content; a slice of the mapped segment for content in the log, so it
+     * can be written out without decoding it to a string first.
+     */
+    public ByteBuffer bytes(String stored) {
+        if (ContentReference.isReference(stored)) {
+            return contentLog.read(ContentReference.parse(stored));
+        }
+        return StandardCharsets.UTF_8.encode(decode(stored));
+    }
+
+    public static boolean isEncoded(String stored) {
+        return isCompressed(stored) || ContentReference.isReference(stored);
+    }
+
+    private static boolean isCompressed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    private byte[] compress(Algorithm algorithm, byte[] raw) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 2 + 32);
+        Deflater deflater = algorithm == Algorithm.DEFLATE ? new Deflater(properties.getLevel()) : null;
+        try (OutputStream out = deflater != null
+                ? new DeflaterOutputStream(buffer, deflater)
+                : new LevelGzipOutputStream(buffer, properties.getLevel())) {
+            out.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] decompress(Algorithm algorithm, byte[] compressed) {
+        Inflater inflater = algorithm == Algorithm.DEFLATE ? new Inflater() : null;
+        try (InputStream in = inflater != null
+                ? new InflaterInputStream(new ByteArrayInputStream(compressed), inflater)
+                : new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt compressed content", e);
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static final class LevelGzipOutputStream extends GZIPOutputStream {
+
+        LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
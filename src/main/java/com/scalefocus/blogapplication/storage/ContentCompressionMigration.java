@@ -0,0 +1,131 @@
+package com.scalefocus.blogapplication.storage;
+
+import com.scalefocus.blogapplication.config.ContentCompressionProperties;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rewrites stored post content into its compressed form, one batch per transaction in id order. Rows
+ * are read and written with plain JDBC so that the stored form is seen as is. A row is only rewritten
+ * if its version is still the one that was read, so a concurrent edit is never overwritten with stale
+ * content; the version itself is left alone because the post does not change for clients.
+ */
+@Component
+public class ContentCompressionMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentCompressionMigration.class);
+
+    private final ContentCompressionProperties properties;
+    private final ContentCodec contentCodec;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ShardRouter shardRouter;
+
+    public ContentCompressionMigration(ContentCompressionProperties properties, ContentCodec contentCodec,
+                                       JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                       ShardRouter shardRouter) {
+        this.properties = properties;
+        this.contentCodec = contentCodec;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInBackground() {
+        if (!properties.getMigration().isEnabled()) {
+            return;
+        }
+        Thread migration = new Thread(this::migrate, "content-compression-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    /**
+     * Compresses every stored post that is not compressed yet and qualifies under the current settings,
+     * shard by shard.
+     */
+    public Result migrate() {
+        if (!properties.isEnabled()) {
+            LOGGER.warn("Content compression is disabled, nothing to migrate");
+            return new Result(0, 0, 0);
+        }
+        long start = System.nanoTime();
+        Result total = new Result(0, 0, 0);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            total = total.plus(shardRouter.onShard(shard, this::migrateShard));
+        }
+        LOGGER.info("Content compression migration rewrote {} posts, {} bytes down to {} (ratio {}) in {} ms",
+                total.posts(), total.rawBytes(), total.storedBytes(), String.format("%.2f", total.ratio()),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return total;
+    }
+
+    private Result migrateShard() {
+        long after = 0;
+        Result total = new Result(0, 0, 0);
+        while (true) {
+            long from = after;
+            List<StoredContent> batch = jdbcTemplate.query(
+                    "SELECT id, version, content FROM blog_posts WHERE id > ? AND content NOT LIKE ? "
+                            + "ORDER BY id FETCH FIRST ? ROWS ONLY",
+                    (rs, rowNum) -> new StoredContent(rs.getLong("id"), rs.getLong("version"), rs.getString("content")),
+                    from, ContentCodec.MARKER + "%", properties.getMigration().getBatchSize());
+            if (batch.isEmpty()) {
+                break;
+            }
+            total = total.plus(transaction.execute(status -> compress(batch)));
+            after = batch.get(batch.size() - 1).id();
+        }
+        return total;
+    }
+
+    private Result compress(List<StoredContent> batch) {
+        List<Object[]> updates = new ArrayList<>();
+        long rawBytes = 0;
+        long storedBytes = 0;
+        for (StoredContent row : batch) {
+            String encoded = contentCodec.encode(row.content());
+            if (ContentCodec.isEncoded(encoded)) {
+                updates.add(new Object[]{encoded, row.id(), row.version()});
+                rawBytes += row.content().getBytes(StandardCharsets.UTF_8).length;
+                storedBytes += encoded.length();
+            }
+        }
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE blog_posts SET content = ? WHERE id = ? AND version = ?", updates);
+        int posts = 0;
+        for (int count : counts) {
+            posts += count;
+        }
+        return new Result(posts, rawBytes, storedBytes);
+    }
+
+    private record StoredContent(long id, long version, String content) {
+    }
+
+    /**
+     * Posts rewritten and their size before and after, in bytes.
+     */
+    public record Result(long posts, long rawBytes, long storedBytes) {
+
+        public double ratio() {
+            return storedBytes == 0 ? 1 : (double) rawBytes / storedBytes;
+        }
+
+        Result plus(Result other) {
+            return new Result(posts + other.posts, rawBytes + other.rawBytes, storedBytes + other.storedBytes);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.scalefocus.blogapplication.storage;
+
+import com.scalefocus.blogapplication.config.ContentLogProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only store for post content in memory-mapped segment files, so that large bodies neither bloat
+ * the database nor pass through JDBC. Rows refer to their content by {@link ContentReference}.
+ * <p>
+ * Each record is a header of magic number, length and CRC-32C followed by the UTF-8 content. Records are
+ * appended to the newest segment only; a full segment is sealed and a new one started. The payload is
+ * written before the header, and both are forced to disk before {@link #append} returns, so a row can only
+ * commit a reference to a complete record. At startup every segment is scanned up to its first invalid
+ * record, which can only be a record torn by a crash and never referenced; the tail from there on is
+ * cleared and reused. Records of updated or deleted posts stay behind until {@link ContentLogCompactor}
+ * reclaims their segment.
+ * <p>
+ * Reads return read-only slices of the mapping, so content can be written out without being copied into a
+ * string first. The directory belongs to one application instance.
+ */
+@Component
+public class ContentLog implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentLog.class);
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.log");
+    private static final int MAGIC = 0x424C4F47;
+    static final int HEADER = 12;
+
+    private final ContentLogProperties properties;
+    private final NavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private Segment active;
+
+    public ContentLog(ContentLogProperties properties) {
+        this.properties = properties;
+        if (properties.isEnabled() || Files.isDirectory(properties.getDirectory())) {
+            open();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Whether content of {@code length} UTF-8 bytes is to be written here rather than to the row.
+     */
+    public boolean accepts(int length) {
+        return properties.isEnabled() && length >= properties.getThreshold();
+    }
+
+    public synchronized ContentReference append(byte[] content) {
+        Segment segment = segmentFor(HEADER + content.length);
+        int offset = segment.end;
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        int checksum = (int) crc.getValue();
+        segment.buffer.put(offset + HEADER, content);
+        segment.buffer.putInt(offset + 4, content.length);
+        segment.buffer.putInt(offset + 8, checksum);
+        segment.buffer.putInt(offset, MAGIC);
+        if (properties.isForceOnAppend()) {
+            segment.buffer.force(offset, HEADER + content.length);
+        }
+        segment.end = offset + HEADER + content.length;
+        return new ContentReference(segment.id, offset, content.length, checksum);
+    }
+
+    /**
+     * The content as a read-only slice of the mapped segment.
+     *
+     * @throws IllegalStateException if the segment is gone or the record does not match the reference
+     */
+    public ByteBuffer read(ContentReference reference) {
+        Segment segment = segments.get(reference.segment());
+        if (segment == null) {
+            throw new IllegalStateException("Content segment " + reference.segment() + " does not exist");
+        }
+        int offset = reference.offset();
+        MappedByteBuffer buffer = segment.buffer;
+        if (offset < 0 || (long) offset + HEADER + reference.length() > segment.capacity
+                || buffer.getInt(offset) != MAGIC
+                || buffer.getInt(offset + 4) != reference.length()
+                || buffer.getInt(offset + 8) != reference.checksum()) {
+            throw new IllegalStateException("No content record matches " + reference);
+        }
+        ByteBuffer content = buffer.slice(offset + HEADER, reference.length()).asReadOnlyBuffer();
+        if (properties.isVerifyOnRead() && checksum(content) != reference.checksum()) {
+            throw new IllegalStateException("Corrupt content record " + reference);
+        }
+        return content;
+    }
+
+    public String readString(ContentReference reference) {
+        return StandardCharsets.UTF_8.decode(read(reference)).toString();
+    }
+
+    /**
+     * Appends a copy of a record to the newest segment, for compaction.
+     */
+    ContentReference copy(ContentReference reference) {
+        ByteBuffer content = read(reference);
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+        return append(bytes);
+    }
+
+    /**
+     * Bytes written to each sealed segment, by segment.
+     */
+    synchronized Map<Integer, Integer> sealedSegments() {
+        Map<Integer, Integer> sealed = new TreeMap<>();
+        segments.values().stream()
+                .filter(segment -> segment != active)
+                .forEach(segment -> sealed.put(segment.id, segment.end));
+        return sealed;
+    }
+
+    /**
+     * When the segment was sealed; {@link Instant#EPOCH} for segments found at startup and
+     * {@link Instant#MAX} for the active one.
+     */
+    Instant sealedAt(int segment) {
+        Segment sealed = segments.get(segment);
+        return sealed == null || sealed.sealedAt == null ? Instant.MAX : sealed.sealedAt;
+    }
+
+    /**
+     * Removes a sealed segment. Slices handed out earlier stay readable until they are collected.
+     */
+    synchronized void delete(int id) {
+        Segment segment = segments.get(id);
+        if (segment == null || segment == active) {
+            return;
+        }
+        segments.remove(id);
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete content segment " + segment.path, e);
+        }
+        LOGGER.info("Deleted content segment {}", id);
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(properties.getDirectory());
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(properties.getDirectory())) {
+                files = listing.filter(path -> SEGMENT_FILE.matcher(path.getFileName().toString()).matches()).toList();
+            }
+            for (Path path : files) {
+                Matcher matcher = SEGMENT_FILE.matcher(path.getFileName().toString());
+                matcher.matches();
+                Segment segment = map(Integer.parseInt(matcher.group(1)), path, Files.size(path));
+                recover(segment);
+                segment.sealedAt = Instant.EPOCH;
+                segments.put(segment.id, segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open content log at " + properties.getDirectory(), e);
+        }
+        if (!segments.isEmpty()) {
+            active = segments.lastEntry().getValue();
+            active.sealedAt = null;
+        }
+        LOGGER.info("Opened content log with {} segments at {}", segments.size(), properties.getDirectory());
+    }
+
+    /**
+     * Finds the end of the valid records and clears a torn record after it.
+     */
+    private static void recover(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while ((long) offset + HEADER <= segment.capacity && buffer.getInt(offset) == MAGIC) {
+            int length = buffer.getInt(offset + 4);
+            if (length < 0 || (long) offset + HEADER + length > segment.capacity
+                    || checksum(buffer.slice(offset + HEADER, length)) != buffer.getInt(offset + 8)) {
+                break;
+            }
+            offset += HEADER + length;
+        }
+        segment.end = offset;
+        int torn = 0;
+        while (offset + torn < segment.capacity && torn < HEADER && buffer.get(offset + torn) == 0) {
+            torn++;
+        }
+        if (torn < HEADER && offset + torn < segment.capacity) {
+            int length = Math.max(0, buffer.getInt(offset + 4));
+            int clear = (int) Math.min(segment.capacity - offset, (long) HEADER + length);
+            buffer.put(offset, new byte[clear]);
+            buffer.force(offset, clear);
+            LOGGER.warn("Content segment {} ends in a torn record at offset {}, cleared {} bytes", segment.id,
+                    offset, clear);
+        }
+    }
+
+    private Segment segmentFor(int recordLength) {
+        if (active != null && (long) active.end + recordLength <= active.capacity) {
+            return active;
+        }
+        if (segments.isEmpty() && !Files.isDirectory(properties.getDirectory())) {
+            open();
+        }
+        int id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        long capacity = Math.max(properties.getSegmentSize().toBytes(), recordLength);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Content of " + recordLength + " bytes exceeds the largest segment");
+        }
+        try {
+            Segment segment = map(id, properties.getDirectory().resolve(String.format("segment-%010d.log", id)), capacity);
+            if (active != null) {
+                active.sealedAt = Instant.now();
+            }
+            segments.put(id, segment);
+            active = segment;
+            LOGGER.info("Started content segment {}", id);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create content segment " + id, e);
+        }
+    }
+
+    private static Segment map(int id, Path path, long capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), (int) capacity);
+    }
+
+    private static int checksum(ByteBuffer content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content.duplicate());
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private volatile int end;
+        private volatile Instant sealedAt;
+
+        private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.scalefocus.blogapplication.storage;
+
+import com.scalefocus.blogapplication.config.ContentLogProperties;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reclaims {@link ContentLog} segments that mostly hold records no post refers to any more. The live
+ * records of such a segment are copied to the active segment and their rows pointed at the copies; once
+ * no row on any shard refers to the segment it is retired, and deleted a grace period later so that reads
+ * which picked up an old reference can still finish.
+ * <p>
+ * As in {@link ContentCompressionMigration}, rows are read and written with plain JDBC in keyset batches,
+ * and a row is only rewritten if its version is still the one that was read, without changing the
+ * version. A row that changed meanwhile keeps the segment alive until a later run. Runs every
+ * {@code blog.content.log.compaction.interval} while the log is enabled.
+ */
+@Component
+public class ContentLogCompactor implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentLogCompactor.class);
+
+    private final ContentLog contentLog;
+    private final ContentLogProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ShardRouter shardRouter;
+    private final Map<Integer, Instant> retired = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public ContentLogCompactor(ContentLog contentLog, ContentLogProperties properties, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.contentLog = contentLog;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        long intervalMillis = properties.getCompaction().getInterval().toMillis();
+        if (properties.isEnabled() && intervalMillis > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "content-log-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::compactQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Deletes segments retired more than a grace period ago, then compacts every sealed segment that is
+     * past the grace period and above the garbage ratio. A retired segment is counted once more right
+     * before it is deleted: a write that read a post before its content was moved can still store the old
+     * reference, and such a segment goes back to being compacted like any other instead.
+     */
+    public synchronized Result compact() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        ContentLogProperties.Compaction compaction = properties.getCompaction();
+        List<Integer> expired = new ArrayList<>();
+        retired.forEach((segment, retiredAt) -> {
+            if (!retiredAt.plus(compaction.getGracePeriod()).isAfter(now)) {
+                expired.add(segment);
+            }
+        });
+        List<Integer> deleted = new ArrayList<>();
+        for (Integer segment : expired) {
+            retired.remove(segment);
+            long references = references(segment);
+            if (references == 0) {
+                contentLog.delete(segment);
+                deleted.add(segment);
+            } else {
+                LOGGER.warn("Retired content log segment {} is referenced again by {} posts, keeping it", segment, references);
+            }
+        }
+
+        Map<Integer, Integer> sealed = contentLog.sealedSegments();
+        sealed.keySet().removeAll(retired.keySet());
+        Map<Integer, Long> live = new HashMap<>();
+        forEachReference(reference -> live.merge(reference.segment(), (long) ContentLog.HEADER + reference.length(), Long::sum));
+        Set<Integer> candidates = new TreeSet<>();
+        sealed.forEach((segment, written) -> {
+            double garbage = written == 0 ? 1 : 1 - (double) live.getOrDefault(segment, 0L) / written;
+            if (garbage >= compaction.getGarbageRatio()
+                    && !contentLog.sealedAt(segment).plus(compaction.getGracePeriod()).isAfter(now)) {
+                candidates.add(segment);
+            }
+        });
+        if (candidates.isEmpty()) {
+            return new Result(List.of(), 0, deleted);
+        }
+
+        long moved = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            moved += shardRouter.onShard(shard, () -> moveShard(candidates));
+        }
+        List<Integer> emptied = new ArrayList<>();
+        for (Integer segment : candidates) {
+            if (references(segment) == 0) {
+                retired.put(segment, Instant.now());
+                emptied.add(segment);
+            }
+        }
+        LOGGER.info("Content log compaction moved {} posts out of segments {}, retired {}, deleted {} in {} ms",
+                moved, candidates, emptied, deleted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Result(emptied, moved, deleted);
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            LOGGER.error("Content log compaction failed", e);
+        }
+    }
+
+    private void forEachReference(Consumer<ContentReference> action) {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.onShard(shard, () -> {
+                long after = 0;
+                List<StoredReference> batch;
+                do {
+                    batch = referencesAfter(after);
+                    batch.forEach(row -> action.accept(row.reference()));
+                    after = batch.isEmpty() ? after : batch.get(batch.size() - 1).id();
+                } while (batch.size() == properties.getCompaction().getBatchSize());
+                return null;
+            });
+        }
+    }
+
+    private long moveShard(Set<Integer> candidates) {
+        long after = 0;
+        long moved = 0;
+        List<StoredReference> batch;
+        do {
+            batch = referencesAfter(after);
+            List<StoredReference> toMove = batch.stream()
+                    .filter(row -> candidates.contains(row.reference().segment()))
+                    .toList();
+            if (!toMove.isEmpty()) {
+                moved += transaction.execute(status -> move(toMove));
+            }
+            after = batch.isEmpty() ? after : batch.get(batch.size() - 1).id();
+        } while (batch.size() == properties.getCompaction().getBatchSize());
+        return moved;
+    }
+
+    private int move(List<StoredReference> rows) {
+        List<Object[]> updates = new ArrayList<>();
+        for (StoredReference row : rows) {
+            updates.add(new Object[]{contentLog.copy(row.reference()).toString(), row.id(), row.version()});
+        }
+        int moved = 0;
+        for (int count : jdbcTemplate.batchUpdate("UPDATE blog_posts SET content = ? WHERE id = ? AND version = ?", updates)) {
+            moved += count;
+        }
+        return moved;
+    }
+
+    private List<StoredReference> referencesAfter(long after) {
+        return jdbcTemplate.query(
+                "SELECT id, version, content FROM blog_posts WHERE id > ? AND content LIKE ? "
+                        + "ORDER BY id FETCH FIRST ? ROWS ONLY",
+                (rs, rowNum) -> new StoredReference(rs.getLong("id"), rs.getLong("version"),
+                        ContentReference.parse(rs.getString("content"))),
+                after, ContentReference.PREFIX + "%", properties.getCompaction().getBatchSize());
+    }
+
+    private long references(int segment) {
+        long references = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            references += shardRouter.onShard(shard, () -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM blog_posts WHERE content LIKE ?", Long.class,
+                    ContentReference.segmentPattern(segment)));
+        }
+        return references;
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private record StoredReference(long id, long version, ContentReference reference) {
+    }
+
+    /**
+     * Segments emptied and retired by this run, posts whose content moved, and segments deleted after
+     * their grace period.
+     */
+    public record Result(List<Integer> retired, long posts, List<Integer> deleted) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.scalefocus.blogapplication.storage;
+
+/**
+ * Location of post content in the {@link ContentLog}, stored in the row in place of the content as
+ * {@value #PREFIX} followed by segment, offset, length and CRC-32C, separated by colons.
+ *
+ * @param offset start of the record, i.e. of its header, within the segment
+ * @param length length of the UTF-8 content in bytes
+ */
+public record ContentReference(int segment, int offset, int length, int checksum) {
+
+    static final String PREFIX = ContentCodec.MARKER + "l:";
+
+    public static boolean isReference(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    public static ContentReference parse(String stored) {
+        String[] parts = stored.substring(PREFIX.length()).split(":");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed content reference");
+        }
+        return new ContentReference(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[2]), Integer.parseUnsignedInt(parts[3], 16));
+    }
+
+    /**
+     * {@code LIKE} pattern matching every reference into {@code segment}.
+     */
+    static String segmentPattern(int segment) {
+        return PREFIX + segment + ":%";
+    }
+
+    @Override
+    public String toString() {
+        return PREFIX + segment + ':' + offset + ':' + length + ':' + Integer.toHexString(checksum);
+    }
+}
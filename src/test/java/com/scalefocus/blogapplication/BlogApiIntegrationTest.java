@@ -1,24 +1,48 @@
 package com.scalefocus.blogapplication;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BulkItemResultDto;
+import com.scalefocus.blogapplication.dto.BulkResultDto;
+import com.scalefocus.blogapplication.dto.SearchResultDto;
 import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.model.BlogPost;
+import com.scalefocus.blogapplication.support.SqlAssertions;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
 @Transactional
 @ActiveProfiles("test")
 class BlogApiIntegrationTest {
@@ -26,6 +50,15 @@ class BlogApiIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @LocalServerPort
     private int port;
 
@@ -53,6 +86,350 @@ class BlogApiIntegrationTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    void testGetBlogPostsPagesWithCursor() {
+        for (int i = 0; i < 3; i++) {
+            restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Paged Blog " + i).content("Paged content.").build(), BlogPostDto.class);
+        }
+
+        ResponseEntity<List> firstPage = restTemplate.getForEntity(getRootUrl() + "/api/blogs?limit=2", List.class);
+
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertEquals(2, firstPage.getBody().size());
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        assertNotNull(cursor);
+
+        ResponseEntity<List> secondPage = restTemplate.getForEntity(getRootUrl() + "/api/blogs?limit=2&after=" + cursor, List.class);
+
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        assertFalse(secondPage.getBody().isEmpty());
+        assertNotEquals(firstPage.getBody().get(0), secondPage.getBody().get(0));
+    }
+
+    @Test
+    void testGetBlogPostsRejectsInvalidCursor() {
+        ResponseEntity<String> response = restTemplate.getForEntity(getRootUrl() + "/api/blogs?after=bogus", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testAddTagRejectsTagWithoutName() {
+        Long id = restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Nameless Tag").content("No name.").build(), BlogPostDto.class).getBody().getId();
+
+        ResponseEntity<String> response = restTemplate.postForEntity(getRootUrl() + "/api/blogs/" + id + "/tag", new TagDto(), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testExportBlogPostsAsNdjson() throws Exception {
+        TagDto tag = TagDto.builder().name("Export").build();
+        restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Exported Blog 1").content("Export 1").tags(Set.of(tag)).build(), BlogPostDto.class);
+        restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Exported Blog 2").content("Export 2").build(), BlogPostDto.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(getRootUrl() + "/api/blogs/export", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        List<BlogPostDto> exported = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            exported.add(objectMapper.readValue(line, BlogPostDto.class));
+        }
+        BlogPostDto tagged = exported.stream().filter(blog -> blog.getTitle().equals("Exported Blog 1")).findFirst().orElseThrow();
+        assertEquals(Set.of("Export"), tagged.getTags().stream().map(TagDto::getName).collect(Collectors.toSet()));
+        assertTrue(exported.stream().anyMatch(blog -> blog.getTitle().equals("Exported Blog 2")));
+        assertEquals(exported.size(), exported.stream().map(BlogPostDto::getId).distinct().count());
+    }
+
+    @Test
+    void testCreateBlogPostsInBatchFromJsonArray() {
+        List<BlogPostDto> blogs = List.of(
+                BlogPostDto.builder().title("Batch Blog 1").content("Batch content 1").tags(Set.of(TagDto.builder().name("Batch").build())).build(),
+                BlogPostDto.builder().title("Batch Blog 2").content("Batch content 2").build());
+
+        ResponseEntity<BulkResultDto> response = restTemplate.postForEntity(getRootUrl() + "/api/blogs/batch", blogs, BulkResultDto.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getCreated());
+        Long id = response.getBody().getItems().get(0).getId();
+        BlogPostDto created = restTemplate.getForObject(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class);
+        assertEquals("Batch Blog 1", created.getTitle());
+        assertEquals(1, created.getTags().size());
+    }
+
+    @Test
+    void testCreateBlogPostsInBatchFromNdjsonReportsFailures() {
+        String body = """
+                {"title":"Ndjson Blog 1","content":"Ndjson content 1"}
+                {"title":"Ndjson Blog 1","content":"Duplicate title"}
+                {"title":"Ndjson Blog 2","content":"Ndjson content 2"}
+                """;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+
+        ResponseEntity<BulkResultDto> response = restTemplate.postForEntity(getRootUrl() + "/api/blogs/batch", new HttpEntity<>(body, headers), BulkResultDto.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getCreated());
+        assertEquals(1, response.getBody().getFailed());
+        assertEquals(BulkItemResultDto.Status.FAILED, response.getBody().getItems().get(1).getStatus());
+    }
+
+    @Test
+    void testConcurrentCreatesWithSameNewTagAllSucceed() throws Exception {
+        int writers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            for (int round = 0; round < 5; round++) {
+                Set<TagDto> tags = Set.of(TagDto.builder().name("Race " + round).build(), TagDto.builder().name("Shared").build());
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<ResponseEntity<BlogPostDto>>> responses = new ArrayList<>();
+                for (int i = 0; i < writers; i++) {
+                    BlogPostDto blog = BlogPostDto.builder().title("Race " + round + " writer " + i).content("Racing").tags(tags).build();
+                    Callable<ResponseEntity<BlogPostDto>> create = () -> {
+                        start.await();
+                        return restTemplate.postForEntity(getRootUrl() + "/api/blogs", blog, BlogPostDto.class);
+                    };
+                    responses.add(executor.submit(create));
+                }
+                start.countDown();
+                for (Future<ResponseEntity<BlogPostDto>> response : responses) {
+                    assertEquals(HttpStatus.CREATED, response.get().getStatusCode());
+                    assertEquals(2, response.get().getBody().getTags().size());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSearchFollowsCreateUpdateAndDelete() {
+        BlogPostDto blog = BlogPostDto.builder().title("Searchable Blog").content("Garbage collectors and zucchini.").build();
+        Long id = restTemplate.postForEntity(getRootUrl() + "/api/blogs", blog, BlogPostDto.class).getBody().getId();
+        restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Unrelated Blog").content("Nothing to see.").build(), BlogPostDto.class);
+
+        SearchResultDto found = restTemplate.getForObject(getRootUrl() + "/api/blogs/search?q=zucchini", SearchResultDto.class);
+        assertEquals(1, found.getTotalHits());
+        assertEquals(id, found.getItems().get(0).getId());
+
+        restTemplate.put(getRootUrl() + "/api/blogs/" + id, BlogPostDto.builder().title("Searchable Blog").content("Garbage collectors and aubergine.").build());
+        assertEquals(0, restTemplate.getForObject(getRootUrl() + "/api/blogs/search?q=zucchini", SearchResultDto.class).getTotalHits());
+        assertEquals(1, restTemplate.getForObject(getRootUrl() + "/api/blogs/search?q=aubergine", SearchResultDto.class).getTotalHits());
+
+        restTemplate.delete(getRootUrl() + "/api/blogs/" + id);
+        assertEquals(0, restTemplate.getForObject(getRootUrl() + "/api/blogs/search?q=aubergine", SearchResultDto.class).getTotalHits());
+    }
+
+    @Test
+    void testSearchRanksTitleMatchesFirst() {
+        Long inContent = restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Ranking A").content("All about quokkas.").build(), BlogPostDto.class).getBody().getId();
+        Long inTitle = restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Quokkas").content("Ranking B.").build(), BlogPostDto.class).getBody().getId();
+
+        SearchResultDto result = restTemplate.getForObject(getRootUrl() + "/api/blogs/search?q=quokka&size=1", SearchResultDto.class);
+        SearchResultDto secondPage = restTemplate.getForObject(getRootUrl() + "/api/blogs/search?q=quokka&size=1&page=1", SearchResultDto.class);
+
+        assertEquals(2, result.getTotalHits());
+        assertEquals(inTitle, result.getItems().get(0).getId());
+        assertEquals(inContent, secondPage.getItems().get(0).getId());
+    }
+
+    @Test
+    void testSearchRejectsPagesBeyondIntRange() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                getRootUrl() + "/api/blogs/search?q=quokka&size=2&page=" + Integer.MAX_VALUE, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testQueryBlogsByTagsCombinesAndOrNot() {
+        Long javaSpring = createTagged("Bitmap A", "bm-java", "bm-spring");
+        Long javaOnly = createTagged("Bitmap B", "bm-java");
+        Long javaBeginner = createTagged("Bitmap C", "bm-java", "bm-beginner");
+        Long kotlin = createTagged("Bitmap D", "bm-kotlin", "bm-spring");
+
+        assertEquals(List.of(javaSpring, javaOnly), queryTags("bm-java NOT bm-beginner"));
+        assertEquals(List.of(javaSpring, kotlin), queryTags("bm-spring AND (bm-java OR bm-kotlin)"));
+        assertEquals(List.of(javaSpring, javaOnly, javaBeginner, kotlin), queryTags("bm-java OR bm-kotlin"));
+
+        restTemplate.delete(getRootUrl() + "/api/blogs/" + javaSpring + "/tag/bm-spring");
+        restTemplate.delete(getRootUrl() + "/api/blogs/" + kotlin);
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(getRootUrl() + "/api/blogs/tags/query?q={q}", String.class, "bm-spring").getStatusCode());
+    }
+
+    @Test
+    void testQueryBlogsByTagsPagesWithCursor() {
+        Long first = createTagged("Bitmap Page 1", "bm-paged");
+        Long second = createTagged("Bitmap Page 2", "bm-paged");
+        Long third = createTagged("Bitmap Page 3", "bm-paged");
+
+        ResponseEntity<BlogPostDto[]> firstPage = restTemplate.getForEntity(getRootUrl() + "/api/blogs/tags/query?q=bm-paged&limit=2", BlogPostDto[].class);
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        ResponseEntity<BlogPostDto[]> secondPage = restTemplate.getForEntity(getRootUrl() + "/api/blogs/tags/query?q=bm-paged&limit=2&after=" + cursor, BlogPostDto[].class);
+
+        assertEquals(List.of(first, second), ids(firstPage.getBody()));
+        assertEquals(List.of(third), ids(secondPage.getBody()));
+        assertNull(secondPage.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(getRootUrl() + "/api/blogs/tags/query?q={q}", String.class, "(bm-paged").getStatusCode());
+    }
+
+    private Long createTagged(String title, String... tags) {
+        Set<TagDto> tagDtos = Arrays.stream(tags).map(name -> TagDto.builder().name(name).build()).collect(Collectors.toSet());
+        BlogPostDto blog = BlogPostDto.builder().title(title).content("Tagged content.").tags(tagDtos).build();
+        return restTemplate.postForEntity(getRootUrl() + "/api/blogs", blog, BlogPostDto.class).getBody().getId();
+    }
+
+    private List<Long> queryTags(String query) {
+        return ids(restTemplate.getForObject(getRootUrl() + "/api/blogs/tags/query?q={q}", BlogPostDto[].class, query));
+    }
+
+    private static List<Long> ids(BlogPostDto[] blogs) {
+        return Arrays.stream(blogs).map(BlogPostDto::getId).toList();
+    }
+
+    @Test
+    void testGetBlogPostHonoursIfNoneMatch() {
+        Long id = restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("ETag Blog").content("Cache me.").build(), BlogPostDto.class).getBody().getId();
+
+        ResponseEntity<BlogPostDto> first = restTemplate.getForEntity(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etag);
+        ResponseEntity<String> notModified = restTemplate.exchange(getRootUrl() + "/api/blogs/" + id, HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+
+        restTemplate.postForEntity(getRootUrl() + "/api/blogs/" + id + "/tag/etag-tag", null, BlogPostDto.class);
+        ResponseEntity<BlogPostDto> changed = restTemplate.exchange(getRootUrl() + "/api/blogs/" + id, HttpMethod.GET, new HttpEntity<>(conditional), BlogPostDto.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertEquals(1, changed.getBody().getTags().size());
+    }
+
+    @Test
+    void testGetBlogPostsPageHonoursIfNoneMatch() {
+        restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("ETag Page Blog").content("Page content.").build(), BlogPostDto.class);
+
+        ResponseEntity<BlogPostDto[]> page = restTemplate.getForEntity(getRootUrl() + "/api/blogs?limit=5", BlogPostDto[].class);
+        String etag = page.getHeaders().getETag();
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etag);
+        ResponseEntity<String> notModified = restTemplate.exchange(getRootUrl() + "/api/blogs?limit=5", HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+
+        restTemplate.postForEntity(getRootUrl() + "/api/blogs/" + page.getBody()[0].getId() + "/tag/etag-page-tag", null, BlogPostDto.class);
+        ResponseEntity<String> changed = restTemplate.exchange(getRootUrl() + "/api/blogs?limit=5", HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void testUpdateBlogPostRejectsStaleIfMatch() {
+        Long id = restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Versioned Blog").content("Version 0.").build(), BlogPostDto.class).getBody().getId();
+        String etag = restTemplate.getForEntity(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class).getHeaders().getETag();
+
+        HttpHeaders ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch(etag);
+        ResponseEntity<BlogPostDto> updated = restTemplate.exchange(getRootUrl() + "/api/blogs/" + id, HttpMethod.PUT,
+                new HttpEntity<>(BlogPostDto.builder().title("Versioned Blog").content("Version 1.").build(), ifMatch), BlogPostDto.class);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertNotEquals(etag, updated.getHeaders().getETag());
+
+        ResponseEntity<String> stale = restTemplate.exchange(getRootUrl() + "/api/blogs/" + id, HttpMethod.PUT,
+                new HttpEntity<>(BlogPostDto.builder().title("Versioned Blog").content("Lost update.").build(), ifMatch), String.class);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode());
+        assertEquals("Version 1.", restTemplate.getForObject(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class).getContent());
+    }
+
+    @Test
+    void testCachedBlogPostIsInvalidatedByChanges() {
+        Long id = restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Cached Blog").content("Before.").build(), BlogPostDto.class).getBody().getId();
+        assertEquals("Before.", restTemplate.getForObject(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class).getContent());
+
+        restTemplate.put(getRootUrl() + "/api/blogs/" + id, BlogPostDto.builder().title("Cached Blog").content("After.").build());
+        assertEquals("After.", restTemplate.getForObject(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class).getContent());
+
+        restTemplate.postForEntity(getRootUrl() + "/api/blogs/" + id + "/tag/cached-tag", null, BlogPostDto.class);
+        assertEquals(1, restTemplate.getForObject(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class).getTags().size());
+
+        restTemplate.delete(getRootUrl() + "/api/blogs/" + id + "/tag/cached-tag");
+        assertTrue(restTemplate.getForObject(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class).getTags().isEmpty());
+
+        restTemplate.delete(getRootUrl() + "/api/blogs/" + id);
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(getRootUrl() + "/api/blogs/" + id, String.class).getStatusCode());
+    }
+
+    @Test
+    void testConcurrentReadsOfUncachedBlogPostLoadItOnce() throws Exception {
+        Long id = restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Viral Blog").content("Everyone reads this.").build(), BlogPostDto.class).getBody().getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "blogs").tag("result", "hit").functionCounter().count();
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<HttpStatus>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return (HttpStatus) restTemplate.getForEntity(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class).getStatusCode();
+                }));
+            }
+            start.countDown();
+            for (Future<HttpStatus> result : results) {
+                assertEquals(HttpStatus.OK, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, statistics.getEntityStatistics(BlogPost.class.getName()).getLoadCount());
+        assertEquals(threads - 1, meterRegistry.get("cache.gets").tag("cache", "blogs").tag("result", "hit").functionCounter().count() - hitsBefore);
+    }
+
+    @Test
+    void testPrometheusEndpointExposesServiceHttpHibernateAndPoolMetrics() {
+        Long id = restTemplate.postForEntity(getRootUrl() + "/api/blogs", BlogPostDto.builder().title("Metered Blog").content("Timed.").build(), BlogPostDto.class).getBody().getId();
+        restTemplate.getForEntity(getRootUrl() + "/api/blogs/" + id, BlogPostDto.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(getRootUrl() + "/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String metrics = response.getBody();
+        assertTrue(metrics.contains("blog_service_seconds_bucket{"));
+        assertTrue(metrics.contains("method=\"createBlog\""));
+        assertTrue(metrics.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(metrics.contains("uri=\"/api/blogs/{id}\""));
+        assertTrue(metrics.contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(metrics.contains("hibernate_query_executions_total"));
+        assertTrue(metrics.contains("hibernate_entities_loads_total"));
+        assertTrue(metrics.contains("hibernate_collections_fetches_total"));
+        assertTrue(metrics.contains("hibernate_flushes_total"));
+        assertTrue(metrics.contains("hikaricp_connections_active"));
+    }
+
+    @Test
+    void testListEndpointsStayWithinTheirSqlBudget() {
+        for (int i = 0; i < 3; i++) {
+            createTagged("Budget Blog " + i, "budget-a", "budget-b");
+        }
+
+        ResponseEntity<BlogPostDto[]> page = restTemplate.getForEntity(getRootUrl() + "/api/blogs?limit=10", BlogPostDto[].class);
+        SqlAssertions.assertStatements(2, page);
+        SqlAssertions.assertNoCollectionInitializations(page);
+        SqlAssertions.assertStatements(1, restTemplate.getForEntity(getRootUrl() + "/api/blogs/summarized?limit=10", String.class));
+        SqlAssertions.assertStatements(1, restTemplate.getForEntity(getRootUrl() + "/api/blogs/tags/budget-a/blogs", String.class));
+        ResponseEntity<BlogPostDto[]> query = restTemplate.getForEntity(getRootUrl() + "/api/blogs/tags/query?q=budget-a budget-b", BlogPostDto[].class);
+        SqlAssertions.assertStatements(1, query);
+        SqlAssertions.assertNoCollectionInitializations(query);
+    }
+
     @Test
     void testUpdateBlogPost() {
         BlogPostDto blogPostDto = BlogPostDto.builder().title("Blog to Update").content("Initial content.").build();
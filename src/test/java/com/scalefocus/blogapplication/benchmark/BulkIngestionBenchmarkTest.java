@@ -0,0 +1,78 @@
+package com.scalefocus.blogapplication.benchmark;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BulkResultDto;
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.service.BlogService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares rows per second of {@link BlogService#createBlog} against {@link BlogService#createBlogs}.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}. The number of posts per
+ * path can be changed with {@code -Dbenchmark.posts=N}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkIngestionBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkIngestionBenchmarkTest.class);
+    private static final int POSTS = Integer.getInteger("benchmark.posts", 5_000);
+    private static final int WARM_UP_POSTS = 500;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Test
+    void compareSingleItemAndBatchIngestion() {
+        runSingle(generate("warm-single", WARM_UP_POSTS));
+        blogService.createBlogs(generate("warm-batch", WARM_UP_POSTS).iterator());
+
+        List<BlogPostDto> single = generate("single", POSTS);
+        long singleStart = System.nanoTime();
+        runSingle(single);
+        double singleRate = rowsPerSecond(POSTS, System.nanoTime() - singleStart);
+
+        List<BlogPostDto> batch = generate("batch", POSTS);
+        long batchStart = System.nanoTime();
+        BulkResultDto result = blogService.createBlogs(batch.iterator());
+        double batchRate = rowsPerSecond(POSTS, System.nanoTime() - batchStart);
+
+        assertEquals(POSTS, result.getCreated());
+        LOGGER.info("Ingested {} posts: single-item {} posts/s, batch {} posts/s ({}x)",
+                POSTS, Math.round(singleRate), Math.round(batchRate), String.format("%.1f", batchRate / singleRate));
+    }
+
+    private void runSingle(List<BlogPostDto> blogs) {
+        blogs.forEach(blogService::createBlog);
+    }
+
+    private static List<BlogPostDto> generate(String prefix, int count) {
+        List<BlogPostDto> blogs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            blogs.add(BlogPostDto.builder()
+                    .title(prefix + " benchmark post " + i)
+                    .content("Benchmark content " + i)
+                    .tags(Set.of(TagDto.builder().name("tag-" + (i % 20)).build(),
+                            TagDto.builder().name("tag-" + (i % 7 + 20)).build()))
+                    .build());
+        }
+        return blogs;
+    }
+
+    private static double rowsPerSecond(int rows, long nanos) {
+        return rows / (nanos / 1_000_000_000.0);
+    }
+}
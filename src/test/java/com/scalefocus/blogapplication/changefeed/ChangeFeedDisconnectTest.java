@@ -0,0 +1,36 @@
+package com.scalefocus.blogapplication.changefeed;
+
+import com.scalefocus.blogapplication.dto.BlogChangeDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-feed-disconnect;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.change-feed.overflow=disconnect"
+})
+class ChangeFeedDisconnectTest extends ChangeFeedOverflowTest {
+
+    @Test
+    void testOverflowClosesTheStreamAndReconnectReplaysEverything() throws Exception {
+        List<Long> created;
+        try (EventStream events = subscribe(0L)) {
+            created = createPosts("Disconnected");
+            awaitOverflows(1);
+            replayReleased.countDown();
+
+            assertEquals(List.of(), events.awaitEnd());
+        }
+        assertEquals(1, overflows());
+
+        try (EventStream events = subscribe(0L)) {
+            List<BlogChangeDto> replayed = events.next(POSTS);
+            assertEquals(created, replayed.stream().map(BlogChangeDto::getPostId).toList());
+            assertEquals(replayed.stream().map(BlogChangeDto::getId).sorted().toList(),
+                    replayed.stream().map(BlogChangeDto::getId).toList());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.scalefocus.blogapplication.changefeed;
+
+import com.scalefocus.blogapplication.dto.BlogChangeDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-feed-drop-oldest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.change-feed.overflow=drop_oldest"
+})
+class ChangeFeedDropOldestTest extends ChangeFeedOverflowTest {
+
+    @Test
+    void testOverflowKeepsTheNewestChanges() throws Exception {
+        try (EventStream events = subscribe(0L)) {
+            List<Long> created = createPosts("Dropped");
+            awaitOverflows(POSTS - 2);
+            replayReleased.countDown();
+
+            List<BlogChangeDto> delivered = events.next(2);
+            assertEquals(created.subList(POSTS - 2, POSTS),
+                    delivered.stream().map(BlogChangeDto::getPostId).toList());
+            assertEquals(POSTS - 2, overflows());
+        }
+    }
+}
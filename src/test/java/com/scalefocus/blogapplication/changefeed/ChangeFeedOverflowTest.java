@@ -0,0 +1,98 @@
+package com.scalefocus.blogapplication.changefeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.repository.BlogChangeRepository;
+import com.scalefocus.blogapplication.service.BlogService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * A subscriber whose buffer of two changes overflows. The subscriber resumes from the start, and its replay
+ * is held until the changes of a test have been offered, so they can only be buffered. Each overflow policy
+ * is tested by a subclass, in a context and database of its own.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.change-feed.enabled=true",
+        "blog.change-feed.buffer-size=2"
+})
+@ActiveProfiles("test")
+abstract class ChangeFeedOverflowTest {
+
+    static final int POSTS = 4;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private BlogChangeRepository blogChangeRepository;
+
+    final CountDownLatch replayReleased = new CountDownLatch(1);
+
+    @BeforeEach
+    void holdFirstReplay() {
+        // the spy of a repository delegates to the repository through its default answer
+        Answer<?> repository = mockingDetails(blogChangeRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            assertTrue(replayReleased.await(10, TimeUnit.SECONDS));
+            return List.of();
+        }).doAnswer(repository).when(blogChangeRepository).findByIdGreaterThanOrderById(anyLong(), any());
+    }
+
+    @AfterEach
+    void releaseReplay() {
+        replayReleased.countDown();
+    }
+
+    List<Long> createPosts(String title) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= POSTS; i++) {
+            ids.add(blogService.createBlog(BlogPostDto.builder()
+                    .title(title + " " + i).content("Post " + i + ".").build()).getId());
+        }
+        return ids;
+    }
+
+    void awaitOverflows(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (overflows() < expected) {
+            assertTrue(System.nanoTime() < deadline, () -> "Overflowed " + overflows() + " times");
+            Thread.sleep(20);
+        }
+    }
+
+    double overflows() {
+        return meterRegistry.get(ChangeFeed.OVERFLOW_METRIC).counter().count();
+    }
+
+    EventStream subscribe(Long lastEventId) throws Exception {
+        return EventStream.subscribe(port, lastEventId, objectMapper);
+    }
+}
@@ -0,0 +1,81 @@
+package com.scalefocus.blogapplication.changefeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogapplication.dto.BlogChangeDto;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent.Type;
+import com.scalefocus.blogapplication.service.BlogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-feed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.change-feed.enabled=true"
+})
+@ActiveProfiles("test")
+class ChangeFeedTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testCommittedChangesAreStreamedInOrder() throws Exception {
+        try (EventStream events = subscribe(null)) {
+            Long id = blogService.createBlog(BlogPostDto.builder().title("Streamed").content("Streamed post.").build()).getId();
+            blogService.addTagByName(id, "live");
+            blogService.removeTag(id, "live");
+            blogService.deleteBlog(id);
+
+            List<BlogChangeDto> changes = events.next(4);
+
+            assertEquals(List.of(Type.CREATED, Type.TAG_ADDED, Type.TAG_REMOVED, Type.DELETED),
+                    changes.stream().map(BlogChangeDto::getType).toList());
+            assertTrue(changes.stream().allMatch(change -> id.equals(change.getPostId())));
+            assertEquals("live", changes.get(1).getTagName());
+            assertTrue(changes.get(1).getPostVersion() > changes.get(0).getPostVersion());
+            assertNull(changes.get(3).getPostVersion());
+            assertEquals(changes.stream().map(BlogChangeDto::getId).sorted().distinct().toList(),
+                    changes.stream().map(BlogChangeDto::getId).toList());
+        }
+    }
+
+    @Test
+    void testReconnectingClientResumesAfterItsLastEventId() throws Exception {
+        BlogChangeDto seen;
+        try (EventStream events = subscribe(null)) {
+            blogService.createBlog(BlogPostDto.builder().title("Seen").content("Seen post.").build());
+            seen = events.next(1).get(0);
+        }
+        Long missed = blogService.createBlog(BlogPostDto.builder().title("Missed").content("Missed post.").build()).getId();
+        blogService.updateBlog(missed, BlogPostDto.builder().title("Missed").content("Missed, edited.").build());
+
+        try (EventStream events = subscribe(seen.getId())) {
+            List<BlogChangeDto> replayed = events.next(2);
+            assertEquals(List.of(Type.CREATED, Type.UPDATED), replayed.stream().map(BlogChangeDto::getType).toList());
+            assertTrue(replayed.stream().allMatch(change -> missed.equals(change.getPostId())));
+
+            blogService.deleteBlog(missed);
+            BlogChangeDto live = events.next(1).get(0);
+            assertEquals(Type.DELETED, live.getType());
+            assertTrue(live.getId() > replayed.get(1).getId());
+        }
+    }
+
+    private EventStream subscribe(Long lastEventId) throws IOException, InterruptedException {
+        return EventStream.subscribe(port, lastEventId, objectMapper);
+    }
+}
@@ -0,0 +1,101 @@
+package com.scalefocus.blogapplication.changefeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogapplication.dto.BlogChangeDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A subscription to {@code /api/blogs/changes}. The data lines of the stream are collected on a separate
+ * thread, so a test can wait for them with a timeout.
+ */
+final class EventStream implements AutoCloseable {
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final Stream<String> lines;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<String> data = new ArrayBlockingQueue<>(100);
+    private final CountDownLatch ended = new CountDownLatch(1);
+
+    private EventStream(Stream<String> lines, ObjectMapper objectMapper) {
+        this.lines = lines;
+        this.objectMapper = objectMapper;
+        Thread reader = new Thread(() -> {
+            try {
+                Iterator<String> iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    String line = iterator.next();
+                    if (line.startsWith("data:")) {
+                        data.add(line.substring("data:".length()));
+                    }
+                }
+            } catch (UncheckedIOException closed) {
+                // the test closed the stream
+            } finally {
+                ended.countDown();
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    static EventStream subscribe(int port, Long lastEventId, ObjectMapper objectMapper)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/blogs/changes"))
+                .version(HttpClient.Version.HTTP_1_1)
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId.toString());
+        }
+        HttpResponse<Stream<String>> response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        return new EventStream(response.body(), objectMapper);
+    }
+
+    List<BlogChangeDto> next(int count) throws Exception {
+        List<BlogChangeDto> changes = new ArrayList<>();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (changes.size() < count) {
+            String json = data.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            assertNotNull(json, () -> "Received " + changes.size() + " of " + count + " changes");
+            changes.add(objectMapper.readValue(json, BlogChangeDto.class));
+        }
+        return changes;
+    }
+
+    /**
+     * Waits for the server to close the stream and returns the changes received that were not taken yet.
+     */
+    List<BlogChangeDto> awaitEnd() throws Exception {
+        assertTrue(ended.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS), "The stream was not closed");
+        List<BlogChangeDto> changes = new ArrayList<>();
+        for (String json : data) {
+            changes.add(objectMapper.readValue(json, BlogChangeDto.class));
+        }
+        data.clear();
+        return changes;
+    }
+
+    @Override
+    public void close() {
+        lines.close();
+    }
+}
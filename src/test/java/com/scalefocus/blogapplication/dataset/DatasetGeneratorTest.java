@@ -0,0 +1,66 @@
+package com.scalefocus.blogapplication.dataset;
+
+import com.scalefocus.blogapplication.config.DatasetProperties;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.service.BlogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:dataset;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class DatasetGeneratorTest {
+
+    @Autowired
+    private DatasetGenerator generator;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesDeterministicSkewedDatasetThatTheAppCanKeepWritingTo() {
+        DatasetProperties properties = new DatasetProperties();
+        properties.setPosts(2_000);
+        properties.setTags(50);
+        properties.setBatchSize(300);
+
+        DatasetGenerator.Summary first = generator.generate(properties);
+        DatasetGenerator.Summary second = generator.generate(properties);
+
+        assertEquals(4_000, count("select count(*) from blog_posts"));
+        assertEquals(50, count("select count(*) from tags"));
+        assertEquals(first.postings() + second.postings(), count("select count(*) from blog_post_tags"));
+        assertEquals(first.postings(), second.postings());
+        assertTrue(count("select max(length(content)) from blog_posts") <= properties.getMaxContentLength());
+
+        List<String> contents = jdbcTemplate.queryForList("select content from blog_posts order by id", String.class);
+        assertEquals(contents.subList(0, 2_000), contents.subList(2_000, 4_000));
+
+        long mostPopular = postings(DatasetGenerator.tagName(0));
+        long leastPopular = postings(DatasetGenerator.tagName(49));
+        assertTrue(mostPopular > 10 * leastPopular, () -> mostPopular + " vs " + leastPopular);
+
+        BlogPostDto created = blogService.createBlog(BlogPostDto.builder().title("After generation").content("Content").build());
+        assertTrue(created.getId() > count("select max(id) from blog_posts where title like 'Synthetic post %'"));
+        assertFalse(blogService.queryBlogsByTags(DatasetGenerator.tagName(0), null, 10).getItems().isEmpty());
+    }
+
+    private long postings(String tagName) {
+        return count("select count(*) from blog_post_tags pt join tags t on t.id = pt.tag_id where t.name = '" + tagName + "'");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,150 @@
+package com.scalefocus.blogapplication.datasource;
+
+import com.scalefocus.blogapplication.config.BlogPostCacheProperties;
+import com.scalefocus.blogapplication.config.ReadReplicaConfig;
+import com.scalefocus.blogapplication.config.ReadReplicaProperties;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.service.BlogService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Primary and replica are two separate H2 databases. Nothing replicates between them on its own, so
+ * the replica lags until {@link Replication#replicate()} copies the primary over.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.datasource.replica.enabled=true",
+        "blog.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.datasource.replica.username=sa",
+        "blog.datasource.replica.password=password",
+        "blog.datasource.replica.pin-duration=1m",
+        "blog.post-cache.not-cached-after-change=1m"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private Replication replication;
+
+    @BeforeEach
+    void replicate() {
+        replication.replicate();
+    }
+
+    @Test
+    void testReadOnlyWorkGoesToReplicaAndWritesToPrimary() {
+        BlogPostDto created = blogService.createBlog(BlogPostDto.builder().title("Written to primary").content("Primary.").build());
+
+        assertFalse(titles(blogService.getSummarizedBlogs(null, 100).getItems()).contains("Written to primary"));
+        assertTrue(titles(PrimaryPinning.onPrimary(() -> blogService.getSummarizedBlogs(null, 100)).getItems())
+                .contains("Written to primary"));
+
+        replication.replicate();
+
+        assertTrue(titles(blogService.getSummarizedBlogs(null, 100).getItems()).contains("Written to primary"));
+        assertEquals("Primary.", blogService.getBlog(created.getId()).getContent());
+    }
+
+    @Test
+    void testClientReadsItsOwnWriteFromPrimary() {
+        ResponseEntity<BlogPostDto> created = restTemplate.postForEntity(url("/api/blogs"),
+                BlogPostDto.builder().title("Own write").content("Read your writes.").build(), BlogPostDto.class);
+        String cookie = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookie);
+        assertTrue(cookie.startsWith(PrimaryPinningFilter.COOKIE + "="), cookie);
+
+        HttpHeaders pinned = new HttpHeaders();
+        pinned.add(HttpHeaders.COOKIE, cookie.substring(0, cookie.indexOf(';')));
+        ResponseEntity<BlogPostDto> own = restTemplate.exchange(url("/api/blogs/" + created.getBody().getId()),
+                HttpMethod.GET, new HttpEntity<>(pinned), BlogPostDto.class);
+        ResponseEntity<String> other = restTemplate.getForEntity(url("/api/blogs/summarized?limit=100"), String.class);
+
+        assertEquals("Read your writes.", own.getBody().getContent());
+        assertFalse(other.getStatusCode().is2xxSuccessful() && other.getBody().contains("Own write"),
+                () -> "Unpinned client read from primary: " + other);
+    }
+
+    @Test
+    void testReplicaRequiresThePostCacheToSkipFreshLoads() {
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setUrl("jdbc:h2:mem:unused");
+
+        assertThrows(IllegalStateException.class,
+                () -> new ReadReplicaConfig().replicaDataSource(properties, new BlogPostCacheProperties()));
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    private static List<String> titles(List<BlogPostSummaryDto> summaries) {
+        return summaries.stream().map(BlogPostSummaryDto::getTitle).toList();
+    }
+
+    @TestConfiguration
+    static class ReplicationConfig {
+
+        /**
+         * Depends on the entity manager factory so that the schema exists on the primary when the
+         * replica is first brought up to date, before anything reads from it.
+         */
+        @Bean
+        Replication replication(@Qualifier("primaryDataSource") DataSource primary,
+                                @Qualifier("replicaDataSource") DataSource replica,
+                                EntityManagerFactory entityManagerFactory) {
+            Replication replication = new Replication(primary, replica);
+            replication.replicate();
+            return replication;
+        }
+    }
+
+    static class Replication {
+
+        private final JdbcTemplate primary;
+        private final JdbcTemplate replica;
+
+        Replication(DataSource primary, DataSource replica) {
+            this.primary = new JdbcTemplate(primary);
+            this.replica = new JdbcTemplate(replica);
+        }
+
+        /**
+         * Replaces the replica with a copy of the primary.
+         */
+        void replicate() {
+            List<String> script = primary.queryForList("SCRIPT", String.class);
+            replica.execute("DROP ALL OBJECTS");
+            script.forEach(replica::execute);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.scalefocus.blogapplication.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostVersionDto;
+import com.scalefocus.blogapplication.dto.CursorPage;
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.service.BlogService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mix of {@code BlogController} operations against the app on a random port and fails when
+ * the latency, error rate or throughput objectives are missed. Excluded from the default build; run
+ * with {@code mvn test -Pload-test}, settings are described in {@link LoadTestSettings}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ApiLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void meetsServiceLevelObjectives() throws InterruptedException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        List<Long> ids = seed(settings.posts());
+
+        LoadReport report = new OpenModelLoadGenerator("http://localhost:" + port, settings, objectMapper, ids).run();
+
+        LOGGER.info("Load test report:{}", report.format());
+        List<String> violations = report.violations();
+        assertTrue(violations.isEmpty(), () -> "Service level objectives missed: " + violations);
+    }
+
+    private List<Long> seed(int posts) {
+        blogService.createBlogs(IntStream.range(0, posts)
+                .mapToObj(i -> BlogPostDto.builder()
+                        .title("Seeded load test post " + i)
+                        .content("Seeded content " + i)
+                        .tags(Set.of(TagDto.builder().name(OpenModelLoadGenerator.tagName(i)).build(),
+                                TagDto.builder().name(OpenModelLoadGenerator.tagName(i * 7 + 3)).build()))
+                        .build())
+                .iterator());
+        List<Long> ids = new ArrayList<>(posts);
+        String after = null;
+        do {
+            CursorPage<BlogPostVersionDto> page = blogService.getBlogVersions(after, 100);
+            page.getItems().forEach(version -> ids.add(version.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+        return ids;
+    }
+}
@@ -0,0 +1,96 @@
+package com.scalefocus.blogapplication.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per route for the measured period of a run.
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestSettings settings;
+    private final Duration elapsed;
+    private final Map<Operation, Route> routes;
+
+    private LoadReport(LoadTestSettings settings, Duration elapsed, Map<Operation, Route> routes) {
+        this.settings = settings;
+        this.elapsed = elapsed;
+        this.routes = routes;
+    }
+
+    static LoadReport of(LoadTestSettings settings, Map<Operation, RouteStats> stats, Duration elapsed) {
+        Map<Operation, Route> routes = new EnumMap<>(Operation.class);
+        stats.forEach((operation, routeStats) -> {
+            if (routeStats.completed() > 0) {
+                routes.put(operation, new Route(routeStats.histogram(), routeStats.completed(),
+                        routeStats.failed(), routeStats.rejected()));
+            }
+        });
+        return new LoadReport(settings, elapsed, routes);
+    }
+
+    long completed() {
+        return routes.values().stream().mapToLong(Route::completed).sum();
+    }
+
+    double throughput() {
+        return completed() / seconds();
+    }
+
+    /**
+     * Descriptions of every missed objective, empty if the run met all of them.
+     */
+    List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        double achieved = throughput() / settings.rate();
+        if (achieved < settings.minThroughput()) {
+            violations.add(String.format("throughput %.1f req/s is %.0f%% of the %.1f req/s target (minimum %.0f%%)",
+                    throughput(), achieved * 100, settings.rate(), settings.minThroughput() * 100));
+        }
+        long failed = routes.values().stream().mapToLong(Route::failed).sum();
+        double errorRate = completed() == 0 ? 0 : (double) failed / completed();
+        if (errorRate > settings.maxErrorRate()) {
+            violations.add(String.format("error rate %.2f%% exceeds %.2f%%", errorRate * 100, settings.maxErrorRate() * 100));
+        }
+        routes.forEach((operation, route) -> {
+            long p99Micros = route.histogram().getValueAtPercentile(99);
+            Duration objective = settings.p99().get(operation);
+            if (p99Micros > objective.toNanos() / 1_000) {
+                violations.add(String.format("%s p99 %.1f ms exceeds %d ms", operation.route(), p99Micros / 1000.0,
+                        objective.toMillis()));
+            }
+        });
+        return violations;
+    }
+
+    String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%n%d requests in %.1f s, %.1f req/s (target %.1f req/s)%n",
+                completed(), seconds(), throughput(), settings.rate()));
+        report.append(String.format("%-40s %8s %9s %7s %7s %9s %9s %9s %9s %9s%n", "route", "count", "req/s",
+                "4xx", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        routes.forEach((operation, route) -> {
+            report.append(String.format("%-40s %8d %9.1f %7d %7d", operation.route(), route.completed(),
+                    route.completed() / seconds(), route.rejected(), route.failed()));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %9.2f", route.histogram().getValueAtPercentile(percentile) / 1000.0));
+            }
+            report.append(String.format(" %9.2f%n", route.histogram().getMaxValue() / 1000.0));
+        });
+        return report.toString();
+    }
+
+    private double seconds() {
+        return elapsed.toNanos() / 1_000_000_000.0;
+    }
+
+    private record Route(Histogram histogram, long completed, long failed, long rejected) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.scalefocus.blogapplication.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code -Dload.*} system properties.
+ *
+ * <ul>
+ *     <li>{@code load.rate} - target arrivals per second (default 50)</li>
+ *     <li>{@code load.duration} / {@code load.warm-up} - measured and discarded periods (30s / 5s)</li>
+ *     <li>{@code load.posts} - posts seeded before the run (2000)</li>
+ *     <li>{@code load.mix} - operation weights, e.g. {@code get=40,list=25,by-tag=15,create=10,tag-add=5,tag-remove=5}</li>
+ *     <li>{@code load.slo.p99} - p99 latency objective for every route (500ms), overridable per route
+ *     with {@code load.slo.p99.<operation>}</li>
+ *     <li>{@code load.slo.error-rate} - maximum share of failed requests (0.01)</li>
+ *     <li>{@code load.slo.min-throughput} - minimum achieved share of the target rate (0.9)</li>
+ * </ul>
+ */
+record LoadTestSettings(double rate, Duration duration, Duration warmUp, int posts, Map<Operation, Integer> mix,
+                        Map<Operation, Duration> p99, double maxErrorRate, double minThroughput) {
+
+    static final String DEFAULT_MIX = "get=40,list=25,by-tag=15,create=10,tag-add=5,tag-remove=5";
+
+    static LoadTestSettings fromSystemProperties() {
+        Duration defaultP99 = duration("load.slo.p99", "500ms");
+        Map<Operation, Duration> p99 = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            p99.put(operation, duration("load.slo.p99." + operation.key(), defaultP99.toMillis() + "ms"));
+        }
+        return new LoadTestSettings(
+                Double.parseDouble(System.getProperty("load.rate", "50")),
+                duration("load.duration", "30s"),
+                duration("load.warm-up", "5s"),
+                Integer.getInteger("load.posts", 2000),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)),
+                p99,
+                Double.parseDouble(System.getProperty("load.slo.error-rate", "0.01")),
+                Double.parseDouble(System.getProperty("load.slo.min-throughput", "0.9")));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in load.mix: " + entry);
+            }
+            weights.put(Operation.fromKey(parts[0].trim()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("load.mix has no positive weights: " + mix);
+        }
+        return weights;
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
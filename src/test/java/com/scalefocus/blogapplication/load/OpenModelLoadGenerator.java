@@ -0,0 +1,184 @@
+package com.scalefocus.blogapplication.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests on an open-model schedule: arrivals follow a Poisson process at the target rate and
+ * are sent without waiting for earlier responses, so a slow server builds up a queue instead of
+ * slowing the generator down. Latency is measured from the scheduled arrival time, which keeps
+ * client-side delays in the numbers instead of hiding them (coordinated omission).
+ */
+final class OpenModelLoadGenerator {
+
+    static final int TAG_POOL = 50;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final Map<Operation, RouteStats> stats = new EnumMap<>(Operation.class);
+    private final List<Long> postIds;
+    private final Operation[] schedule;
+    private final AtomicLong created = new AtomicLong();
+    private final Random random = new Random(42);
+
+    OpenModelLoadGenerator(String baseUrl, LoadTestSettings settings, ObjectMapper objectMapper, List<Long> seededIds) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.postIds = new ArrayList<>(seededIds);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new RouteStats());
+        }
+        List<Operation> weighted = new ArrayList<>();
+        settings.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.schedule = weighted.toArray(Operation[]::new);
+    }
+
+    static String tagName(int index) {
+        return "load-tag-" + Math.floorMod(index, TAG_POOL);
+    }
+
+    /**
+     * Runs the warm-up and the measured period and returns the statistics of the measured period.
+     */
+    LoadReport run() throws InterruptedException {
+        Phaser inFlight = new Phaser(1);
+        long start = System.nanoTime();
+        long warmUpEnd = start + settings.warmUp().toNanos();
+        long end = warmUpEnd + settings.duration().toNanos();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        boolean warmingUp = settings.warmUp().toNanos() > 0;
+
+        long next = start;
+        while (next < end) {
+            long now = System.nanoTime();
+            if (next > now) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            if (warmingUp && next >= warmUpEnd) {
+                stats.values().forEach(RouteStats::reset);
+                warmingUp = false;
+            }
+            send(schedule[random.nextInt(schedule.length)], next, inFlight);
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+        }
+        for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+            LockSupport.parkNanos(end - now);
+        }
+        try {
+            inFlight.awaitAdvanceInterruptibly(inFlight.arrive(), DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Requests still in flight " + DRAIN_TIMEOUT + " after the run ended", e);
+        }
+        return LoadReport.of(settings, stats, settings.duration());
+    }
+
+    private void send(Operation operation, long scheduledNanos, Phaser inFlight) {
+        HttpRequest request = request(operation);
+        RouteStats routeStats = stats.get(operation);
+        inFlight.register();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    try {
+                        long latency = System.nanoTime() - scheduledNanos;
+                        routeStats.record(latency, failure == null ? response.statusCode() : -1);
+                        if (operation == Operation.CREATE && failure == null && response.statusCode() == 201) {
+                            rememberCreated(response.body());
+                        }
+                    } finally {
+                        inFlight.arriveAndDeregister();
+                    }
+                });
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case CREATE -> post("/api/blogs", createBody());
+            case GET -> get("/api/blogs/" + randomPostId());
+            case LIST -> get("/api/blogs?limit=20");
+            case TAG_ADD -> post("/api/blogs/" + randomPostId() + "/tag/" + tagName(random.nextInt()), null);
+            case TAG_REMOVE -> builder("/api/blogs/" + randomPostId() + "/tag/" + tagName(random.nextInt())).DELETE().build();
+            case BY_TAG -> get("/api/blogs/tags/" + tagName(random.nextInt()) + "/blogs");
+        };
+    }
+
+    private String createBody() {
+        long n = created.incrementAndGet();
+        Map<String, Object> body = Map.of(
+                "title", "Load test post " + n + "-" + random.nextLong(),
+                "content", "Content of load test post " + n,
+                "tags", List.of(Map.of("name", tagName(random.nextInt())), Map.of("name", tagName(random.nextInt()))));
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void rememberCreated(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            if (id != null) {
+                synchronized (postIds) {
+                    postIds.add(id.asLong());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long randomPostId() {
+        synchronized (postIds) {
+            return postIds.get(random.nextInt(postIds.size()));
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        HttpRequest.Builder builder = builder(path);
+        if (json == null) {
+            return builder.POST(HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+}
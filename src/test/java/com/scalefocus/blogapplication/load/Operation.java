@@ -0,0 +1,38 @@
+package com.scalefocus.blogapplication.load;
+
+import java.util.Arrays;
+
+/**
+ * {@code BlogController} operations the load generator can issue, reported under their route template.
+ */
+enum Operation {
+    CREATE("create", "POST /api/blogs"),
+    GET("get", "GET /api/blogs/{id}"),
+    LIST("list", "GET /api/blogs"),
+    TAG_ADD("tag-add", "POST /api/blogs/{id}/tag/{tagName}"),
+    TAG_REMOVE("tag-remove", "DELETE /api/blogs/{id}/tag/{tagName}"),
+    BY_TAG("by-tag", "GET /api/blogs/tags/{tagName}/blogs");
+
+    private final String key;
+    private final String route;
+
+    Operation(String key, String route) {
+        this.key = key;
+        this.route = route;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String route() {
+        return route;
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load operation: " + key));
+    }
+}
@@ -0,0 +1,62 @@
+package com.scalefocus.blogapplication.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one route. Latencies are recorded in microseconds.
+ */
+final class RouteStats {
+
+    private final Recorder latencies = new Recorder(3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param status HTTP status, or {@code -1} if no response was received
+     */
+    void record(long latencyNanos, int status) {
+        latencies.recordValue(Math.max(1, latencyNanos / 1_000));
+        completed.increment();
+        if (status < 0 || status >= 500) {
+            failed.increment();
+        } else if (status >= 400) {
+            rejected.increment();
+        }
+    }
+
+    /**
+     * Discards everything recorded so far, used at the end of the warm-up.
+     */
+    void reset() {
+        latencies.reset();
+        completed.reset();
+        failed.reset();
+        rejected.reset();
+    }
+
+    Histogram histogram() {
+        return latencies.getIntervalHistogram();
+    }
+
+    long completed() {
+        return completed.sum();
+    }
+
+    /**
+     * Server errors and requests that got no response.
+     */
+    long failed() {
+        return failed.sum();
+    }
+
+    /**
+     * 4xx responses, e.g. a 404 for a tag without posts or a 409 for concurrent tag updates.
+     */
+    long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,163 @@
+package com.scalefocus.blogapplication.readmodel;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import com.scalefocus.blogapplication.service.BlogService;
+import com.scalefocus.blogapplication.support.SqlAssertions;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-model;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.read-model.enabled=true",
+        "blog.read-model.out-of-order-window=500ms"
+})
+@ActiveProfiles("test")
+class BlogReadModelTest {
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private BlogReadModel readModel;
+
+    @Autowired
+    private ReadModelConsistencyChecker checker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testReadsAreServedWithoutQueries() {
+        BlogPostDto created = create("Served from memory", "memory");
+        assertTrue(readModel.isServing());
+
+        SqlAssertions.assertStatements(0, () -> {
+            assertEquals(created, blogService.getBlog(created.getId()));
+            assertTrue(blogService.getBlogs(null, 100).getItems().contains(created));
+            assertEquals(List.of(created), blogService.getBlogsByTag("memory"));
+            assertTrue(blogService.getSummarizedBlogs(null, 100).getItems()
+                    .contains(new BlogPostSummaryDto(created.getId(), "Served from memory", "Content of Served from memory.")));
+        });
+    }
+
+    @Test
+    void testListAndConditionalRequestsRunNoQueries() {
+        BlogPostDto created = create("Listed from memory", "listed");
+
+        ResponseEntity<BlogPostDto[]> page = restTemplate.getForEntity("/api/blogs?limit=100", BlogPostDto[].class);
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertTrue(List.of(page.getBody()).contains(created));
+        SqlAssertions.assertStatements(0, page);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(page.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, restTemplate.exchange("/api/blogs?limit=100", HttpMethod.GET,
+                new HttpEntity<>(headers), BlogPostDto[].class).getStatusCode());
+
+        headers.setIfNoneMatch("\"" + (created.getVersion() + 1) + "\"");
+        ResponseEntity<BlogPostDto> post = restTemplate.exchange("/api/blogs/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), BlogPostDto.class, created.getId());
+        assertEquals(created, post.getBody());
+        SqlAssertions.assertStatements(0, post);
+    }
+
+    @Test
+    void testChangesAreAppliedOnCommit() {
+        BlogPostDto created = create("Before", "changing");
+
+        BlogPostDto updated = blogService.updateBlog(created.getId(),
+                BlogPostDto.builder().title("After").content("Changed content.").build());
+        assertEquals(updated, blogService.getBlog(created.getId()));
+
+        blogService.addTagByName(created.getId(), "added");
+        blogService.removeTag(created.getId(), "changing");
+        assertEquals(List.of(), blogService.getBlogsByTag("changing"));
+        BlogPostDto tagged = blogService.getBlogsByTag("added").get(0);
+        assertEquals("Changed content.", tagged.getContent());
+        assertEquals(blogService.getBlogVersion(created.getId()), tagged.getVersion());
+
+        blogService.deleteBlog(created.getId());
+        assertNull(blogService.getBlog(created.getId()));
+        assertEquals(List.of(), blogService.getBlogsByTag("added"));
+    }
+
+    @Test
+    void testConsistencyCheckFindsAndRepairsWritesThatBypassTheService() {
+        BlogPostDto edited = create("Edited behind the model", "bypassed");
+        BlogPostDto removed = create("Removed behind the model", "bypassed");
+        jdbcTemplate.update("UPDATE blog_posts SET title = ?, version = version + 1 WHERE id = ?", "Edited directly", edited.getId());
+        jdbcTemplate.update("DELETE FROM blog_post_tags WHERE blog_post_id = ?", removed.getId());
+        jdbcTemplate.update("DELETE FROM blog_posts WHERE id = ?", removed.getId());
+        entityManagerFactory.getCache().evictAll();
+
+        ReadModelConsistencyChecker.Report report = checker.check();
+
+        assertEquals(List.of(edited.getId()), report.stale());
+        assertEquals(List.of(removed.getId()), report.unexpected());
+        assertEquals("Edited directly", blogService.getBlog(edited.getId()).getTitle());
+        assertNull(blogService.getBlog(removed.getId()));
+        assertTrue(checker.check().isConsistent());
+    }
+
+    @Test
+    void testEventsArrivingOutOfOrderDoNotUndoLaterChanges() {
+        long id = 1_000_000L;
+        readModel.onBlogPostChanged(BlogPostChangedEvent.tagAdded(new BlogPostDto(id, 1L, "Early", null,
+                Set.of(new TagDto(null, "early"))), "early"));
+        assertNull(readModel.getPost(id));
+
+        readModel.onBlogPostChanged(BlogPostChangedEvent.created(new BlogPostDto(id, 0L, "Early", "Created.", Set.of())));
+        BlogPostDto post = readModel.getPost(id);
+        assertEquals(1L, post.getVersion());
+        assertEquals("Created.", post.getContent());
+        assertEquals(List.of(post), readModel.postsByTag("early"));
+
+        readModel.onBlogPostChanged(BlogPostChangedEvent.deleted(id));
+        readModel.onBlogPostChanged(BlogPostChangedEvent.updated(new BlogPostDto(id, 2L, "Late", "Updated.", Set.of())));
+        assertNull(readModel.getPost(id));
+    }
+
+    @Test
+    void testTagChangeForAPostThatNeverArrivesIsCheckedAgain() throws InterruptedException {
+        long id = 2_000_000L;
+        readModel.onBlogPostChanged(BlogPostChangedEvent.tagRemoved(new BlogPostDto(id, 1L, "Lost", null, Set.of()), "lost"));
+
+        Thread.sleep(600);
+        readModel.onBlogPostChanged(BlogPostChangedEvent.deleted(id + 1));
+
+        assertEquals(Set.of(id), readModel.takeSuspects());
+        assertEquals(Set.of(), readModel.takeSuspects());
+    }
+
+    private BlogPostDto create(String title, String tag) {
+        return blogService.createBlog(BlogPostDto.builder()
+                .title(title)
+                .content("Content of " + title + ".")
+                .tags(Set.of(TagDto.builder().name(tag).build()))
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package com.scalefocus.blogapplication.search;
+
+import com.scalefocus.blogapplication.config.SearchProperties;
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostTextView;
+import com.scalefocus.blogapplication.event.BlogPostChangedEvent;
+import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BlogSearchIndexTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testChangesCommittedDuringRebuildWinOverTheSnapshot() throws IOException {
+        SearchProperties properties = new SearchProperties();
+        properties.setIndexDir(directory);
+        BlogPostRepository repository = mock(BlogPostRepository.class);
+        BlogSearchIndex index = new BlogSearchIndex(properties, repository, mock(PlatformTransactionManager.class),
+                ShardRouter.unsharded());
+        // the snapshot was read before post 1 was updated and post 2 deleted, but is indexed after both
+        when(repository.streamAllText()).thenReturn(Stream.of(text(1L, "Stale title"), text(2L, "Deleted title"))
+                .peek(post -> {
+                    if (post.getId() == 1L) {
+                        index.onBlogPostChanged(BlogPostChangedEvent.updated(
+                                BlogPostDto.builder().id(1L).title("Fresh title").content("").build()));
+                        index.onBlogPostChanged(BlogPostChangedEvent.deleted(2L));
+                    }
+                }));
+
+        index.rebuild();
+
+        assertEquals(List.of(1L), index.search("fresh", 0, 10).ids());
+        assertEquals(0, index.search("stale", 0, 10).totalHits());
+        assertEquals(0, index.search("deleted", 0, 10).totalHits());
+        index.destroy();
+    }
+
+    @Test
+    void testIndexIsRebuiltAfterAnUncleanShutdownOnly() throws Exception {
+        SearchProperties properties = new SearchProperties();
+        properties.setIndexDir(directory);
+        BlogPostRepository repository = mock(BlogPostRepository.class);
+        BlogSearchIndex index = new BlogSearchIndex(properties, repository, mock(PlatformTransactionManager.class),
+                ShardRouter.unsharded());
+        when(repository.streamAllText()).thenReturn(Stream.empty());
+        index.rebuild();
+        index.onBlogPostChanged(BlogPostChangedEvent.created(BlogPostDto.builder().id(1L).title("Stale title").content("").build()));
+        index.onBlogPostChanged(BlogPostChangedEvent.created(BlogPostDto.builder().id(2L).title("Deleted title").content("").build()));
+        index.destroy();
+        clearInvocations(repository);
+
+        BlogSearchIndex reopened = new BlogSearchIndex(properties, repository, mock(PlatformTransactionManager.class),
+                ShardRouter.unsharded());
+        reopened.rebuildIfMissing();
+        verify(repository, after(200).never()).streamAllText();
+        reopened.destroy();
+
+        // the changes below were committed before the crash but never reached the index
+        Files.delete(directory.resolve(BlogSearchIndex.CLEAN_SHUTDOWN_MARKER));
+        when(repository.streamAllText()).thenReturn(Stream.of(text(1L, "Fresh title")));
+        BlogSearchIndex recovered = new BlogSearchIndex(properties, repository, mock(PlatformTransactionManager.class),
+                ShardRouter.unsharded());
+        recovered.rebuildIfMissing();
+
+        verify(repository, timeout(5000)).streamAllText();
+        for (int attempt = 0; attempt < 50 && recovered.search("fresh", 0, 10).totalHits() == 0; attempt++) {
+            Thread.sleep(100);
+        }
+        assertEquals(List.of(1L), recovered.search("fresh", 0, 10).ids());
+        assertEquals(0, recovered.search("stale", 0, 10).totalHits());
+        assertEquals(0, recovered.search("deleted", 0, 10).totalHits());
+        recovered.destroy();
+        assertTrue(Files.exists(directory.resolve(BlogSearchIndex.CLEAN_SHUTDOWN_MARKER)));
+    }
+
+    private static BlogPostTextView text(Long id, String title) {
+        return new BlogPostTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getContent() {
+                return "";
+            }
+        };
+    }
+}
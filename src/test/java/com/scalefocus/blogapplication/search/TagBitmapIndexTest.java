@@ -0,0 +1,27 @@
+package com.scalefocus.blogapplication.search;
+
+import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TagBitmapIndexTest {
+
+    @Test
+    void testQueriesFailAsNotReadyUntilTheIndexIsBuilt() {
+        BlogPostRepository repository = mock(BlogPostRepository.class);
+        when(repository.streamAllIds()).thenReturn(Stream.of(1L));
+        when(repository.streamAllTagPostings()).thenReturn(Stream.empty());
+        TagBitmapIndex index = new TagBitmapIndex(repository, mock(PlatformTransactionManager.class), ShardRouter.unsharded());
+
+        assertThrows(IndexNotReadyException.class, () -> index.evaluate("java"));
+
+        index.rebuild();
+        assertArrayEquals(new long[]{1}, index.evaluate("NOT java").toArray());
+    }
+}
@@ -0,0 +1,61 @@
+package com.scalefocus.blogapplication.search;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagQueryTest {
+
+    private final Map<String, Roaring64Bitmap> postsByTag = Map.of(
+            "java", Roaring64Bitmap.bitmapOf(1, 2, 3, 4),
+            "spring", Roaring64Bitmap.bitmapOf(2, 3, 5),
+            "beginner", Roaring64Bitmap.bitmapOf(3, 6),
+            "and", Roaring64Bitmap.bitmapOf(7),
+            "spring boot", Roaring64Bitmap.bitmapOf(5));
+    private final Roaring64Bitmap allPosts = Roaring64Bitmap.bitmapOf(1, 2, 3, 4, 5, 6, 7);
+
+    private long[] evaluate(String query) {
+        return TagQuery.parse(query)
+                .evaluate(tag -> postsByTag.getOrDefault(tag, new Roaring64Bitmap()), allPosts)
+                .toArray();
+    }
+
+    @Test
+    void testAndBindsTighterThanOr() {
+        assertArrayEquals(new long[]{2, 3, 6}, evaluate("java AND spring OR beginner"));
+        assertArrayEquals(new long[]{3}, evaluate("java AND (spring AND beginner)"));
+    }
+
+    @Test
+    void testImplicitAndWithNegation() {
+        assertArrayEquals(new long[]{2}, evaluate("java spring NOT beginner"));
+        assertArrayEquals(new long[]{1, 2, 4, 5, 7}, evaluate("NOT beginner"));
+    }
+
+    @Test
+    void testQuotedAndLowerCaseOperatorNamesAreTags() {
+        assertArrayEquals(new long[]{5}, evaluate("\"spring boot\""));
+        assertArrayEquals(new long[]{7}, evaluate("and"));
+        assertArrayEquals(new long[0], evaluate("unknown OR missing"));
+    }
+
+    @Test
+    void testEvaluationDoesNotModifyInputs() {
+        evaluate("java AND spring NOT beginner");
+        evaluate("NOT java");
+
+        assertArrayEquals(new long[]{1, 2, 3, 4}, postsByTag.get("java").toArray());
+        assertEquals(7, allPosts.getLongCardinality());
+    }
+
+    @Test
+    void testInvalidQueriesAreRejected() {
+        for (String query : Arrays.asList("", "(java", "java)", "java AND", "OR java", "\"java")) {
+            assertThrows(IllegalArgumentException.class, () -> TagQuery.parse(query), query);
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.scalefocus.blogapplication.service;
 
+import com.scalefocus.blogapplication.config.BlogPostCacheProperties;
+import com.scalefocus.blogapplication.config.PaginationProperties;
+import com.scalefocus.blogapplication.config.SummaryProperties;
 import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostVersionDto;
+import com.scalefocus.blogapplication.dto.CursorPage;
 import com.scalefocus.blogapplication.dto.TagDto;
 import com.scalefocus.blogapplication.mapper.BlogPostMapper;
 import com.scalefocus.blogapplication.model.BlogPost;
 import com.scalefocus.blogapplication.model.Tag;
+import com.scalefocus.blogapplication.readmodel.BlogReadModel;
 import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.sharding.ShardRouter;
+import com.scalefocus.blogapplication.storage.ContentCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -16,10 +25,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.platform.commons.annotation.Testable;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Testable
@@ -39,6 +54,30 @@ class BlogServiceImplTest {
     @Mock
     private TagService tagService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
+    @Spy
+    private BlogPostCache blogPostCache = new BlogPostCache(new BlogPostCacheProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private SummaryGenerator summaryGenerator = new SummaryGenerator(new SummaryProperties());
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.unsharded();
+
+    @Mock
+    private BlogReadModel readModel;
+
+    @Mock
+    private ContentCodec contentCodec;
+
     @Test
     void createBlog_ShouldCreateBlog_WhenGivenValidBlog() {
         // Arrange
@@ -65,22 +104,51 @@ class BlogServiceImplTest {
     }
 
     @Test
-    void getBlogs_ShouldReturnAllBlogs_WhenBlogsExist() {
+    void getBlogs_ShouldReturnFirstPage_WhenBlogsExist() {
         // Arrange
         List<BlogPost> blogPosts = List.of(new BlogPost());
-        when(blogPostRepository.findAll()).thenReturn(blogPosts);
+        when(blogPostRepository.findVersionsByIdGreaterThan(0L, Limit.of(21))).thenReturn(List.of(new BlogPostVersionDto(1L, 0L)));
+        when(blogPostRepository.findWithTagsByIdIn(List.of(1L))).thenReturn(blogPosts);
         when(blogPostMapper.toDtoList(blogPosts)).thenReturn(List.of(new BlogPostDto()));
 
         // Act
-        List<BlogPostDto> result = blogService.getBlogs();
+        CursorPage<BlogPostDto> result = blogService.getBlogs(null, null);
 
         // Assert
         assertNotNull(result);
-        assertFalse(result.isEmpty());
-        verify(blogPostRepository).findAll();
+        assertFalse(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
         verify(blogPostMapper).toDtoList(blogPosts);
     }
 
+    @Test
+    void getBlogs_ShouldReturnNextCursor_WhenMoreBlogsExist() {
+        // Arrange
+        List<BlogPost> firstPosts = List.of(new BlogPost());
+        List<BlogPost> secondPosts = List.of(new BlogPost());
+        when(blogPostRepository.findVersionsByIdGreaterThan(0L, Limit.of(2))).thenReturn(List.of(new BlogPostVersionDto(1L, 0L), new BlogPostVersionDto(2L, 0L)));
+        when(blogPostRepository.findWithTagsByIdIn(List.of(1L))).thenReturn(firstPosts);
+        when(blogPostMapper.toDtoList(firstPosts)).thenReturn(List.of(new BlogPostDto()));
+        when(blogPostRepository.findVersionsByIdGreaterThan(1L, Limit.of(2))).thenReturn(List.of(new BlogPostVersionDto(2L, 0L)));
+        when(blogPostRepository.findWithTagsByIdIn(List.of(2L))).thenReturn(secondPosts);
+        when(blogPostMapper.toDtoList(secondPosts)).thenReturn(List.of(new BlogPostDto()));
+
+        // Act
+        CursorPage<BlogPostDto> firstPage = blogService.getBlogs(null, 1);
+        CursorPage<BlogPostDto> secondPage = blogService.getBlogs(firstPage.getNextCursor(), 1);
+
+        // Assert
+        assertEquals(1, firstPage.getItems().size());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(1, secondPage.getItems().size());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getBlogs_ShouldThrowException_WhenCursorIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> blogService.getBlogs("not-a-cursor", null));
+    }
+
     @Test
     void deleteBlog_ShouldRemoveBlog_WhenBlogExists() {
         // Arrange
@@ -99,7 +167,7 @@ class BlogServiceImplTest {
         Long blogId = 1L;
         BlogPost blogPost = new BlogPost();
         blogPost.setId(blogId);
-        when(blogPostRepository.findById(blogId)).thenReturn(Optional.of(blogPost));
+        when(blogPostRepository.findWithContentById(blogId)).thenReturn(Optional.of(blogPost));
         when(blogPostMapper.toDto(blogPost)).thenReturn(new BlogPostDto());
 
         // Act
@@ -107,10 +175,25 @@ class BlogServiceImplTest {
 
         // Assert
         assertNotNull(result);
-        verify(blogPostRepository).findById(blogId);
+        verify(blogPostRepository).findWithContentById(blogId);
         verify(blogPostMapper).toDto(blogPost);
     }
 
+    @Test
+    void getBlog_ShouldServeRepeatReadsFromCache() {
+        Long blogId = 2L;
+        BlogPost blogPost = new BlogPost();
+        blogPost.setId(blogId);
+        when(blogPostRepository.findWithContentById(blogId)).thenReturn(Optional.of(blogPost));
+        when(blogPostMapper.toDto(blogPost)).thenReturn(new BlogPostDto());
+
+        BlogPostDto first = blogService.getBlog(blogId);
+        BlogPostDto second = blogService.getBlog(blogId);
+
+        assertSame(first, second);
+        verify(blogPostRepository, times(1)).findWithContentById(blogId);
+    }
+
     @Test
     void updateBlog_ShouldUpdateBlog_WhenBlogExists() {
         // Arrange
@@ -120,8 +203,7 @@ class BlogServiceImplTest {
         BlogPost existingBlog = new BlogPost();
         existingBlog.setId(blogId);
         when(blogPostRepository.findById(blogId)).thenReturn(Optional.of(existingBlog));
-        when(blogPostMapper.toEntity(dto)).thenReturn(existingBlog);
-        when(blogPostRepository.save(existingBlog)).thenReturn(existingBlog);
+        when(blogPostRepository.saveAndFlush(existingBlog)).thenReturn(existingBlog);
         when(blogPostMapper.toDto(existingBlog)).thenReturn(dto);
 
         // Act
@@ -131,10 +213,26 @@ class BlogServiceImplTest {
         assertNotNull(updatedBlog);
         assertEquals(blogId, updatedBlog.getId());
         verify(blogPostRepository).findById(blogId);
-        verify(blogPostRepository).save(existingBlog);
+        verify(blogPostMapper).updateEntity(dto, existingBlog);
+        verify(blogPostRepository).saveAndFlush(existingBlog);
         verify(blogPostMapper).toDto(existingBlog);
     }
 
+    @Test
+    void updateBlog_ShouldThrowException_WhenVersionIsStale() {
+        Long blogId = 1L;
+        BlogPostDto dto = new BlogPostDto();
+        dto.setVersion(1L);
+        BlogPost existingBlog = new BlogPost();
+        existingBlog.setId(blogId);
+        existingBlog.setVersion(2L);
+        when(blogPostRepository.findById(blogId)).thenReturn(Optional.of(existingBlog));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> blogService.updateBlog(blogId, dto));
+        verify(blogPostMapper, never()).updateEntity(any(), any());
+        verify(blogPostRepository, never()).saveAndFlush(any(BlogPost.class));
+    }
+
     @Test
     void addTag_ShouldAddTagToBlog_WhenBlogExists() {
         // Arrange
@@ -144,19 +242,19 @@ class BlogServiceImplTest {
         blogPost.setId(blogId);
 
         when(blogPostRepository.findById(blogId)).thenReturn(Optional.of(blogPost));
-        when(tagService.createTag(tagDto)).thenReturn(tagDto);
-        when(tagService.toEntity(tagDto)).thenReturn(new Tag());
-        when(blogPostRepository.save(blogPost)).thenReturn(blogPost);
-        when(blogPostMapper.toDto(blogPost)).thenReturn(new BlogPostDto());
+        when(tagService.resolveTags(List.of("Test Tag"))).thenReturn(Map.of("Test Tag", new Tag()));
+        when(blogPostRepository.saveAndFlush(blogPost)).thenReturn(blogPost);
+        when(blogPostMapper.toDtoWithoutContent(blogPost)).thenReturn(new BlogPostDto());
 
         // Act
         BlogPostDto result = blogService.addTag(blogId, tagDto);
 
         // Assert
         assertNotNull(result);
-        verify(blogPostRepository).save(blogPost);
+        assertEquals(1, blogPost.getTags().size());
+        verify(blogPostRepository).saveAndFlush(blogPost);
         verify(blogPostRepository).findById(blogId);
-        verify(tagService).createTag(tagDto);
+        verify(tagService).resolveTags(List.of("Test Tag"));
     }
 
     @Test
@@ -168,20 +266,19 @@ class BlogServiceImplTest {
         blogPost.setId(blogId);
 
         when(blogPostRepository.findById(blogId)).thenReturn(Optional.of(blogPost));
-        when(tagService.getTagByName(tagName)).thenReturn(null);
-        when(tagService.createTag(TagDto.builder().name(tagName).build())).thenReturn(TagDto.builder().name(tagName).build());
-        when(tagService.toEntity(any(TagDto.class))).thenReturn(new Tag());
-        when(blogPostRepository.save(blogPost)).thenReturn(blogPost);
-        when(blogPostMapper.toDto(blogPost)).thenReturn(new BlogPostDto());
+        when(tagService.resolveTags(List.of(tagName))).thenReturn(Map.of(tagName, new Tag()));
+        when(blogPostRepository.saveAndFlush(blogPost)).thenReturn(blogPost);
+        when(blogPostMapper.toDtoWithoutContent(blogPost)).thenReturn(new BlogPostDto());
 
         // Act
         BlogPostDto result = blogService.addTagByName(blogId, tagName);
 
         // Assert
         assertNotNull(result);
-        verify(blogPostRepository).save(blogPost);
+        assertEquals(1, blogPost.getTags().size());
+        verify(blogPostRepository).saveAndFlush(blogPost);
         verify(blogPostRepository).findById(blogId);
-        verify(tagService).createTag(TagDto.builder().name(tagName).build());
+        verify(tagService).resolveTags(List.of(tagName));
     }
 
     @Test
@@ -196,15 +293,16 @@ class BlogServiceImplTest {
         blogPost.getTags().add(tag);
 
         when(blogPostRepository.findById(blogId)).thenReturn(Optional.of(blogPost));
-        when(blogPostRepository.save(blogPost)).thenReturn(blogPost);
-        when(blogPostMapper.toDto(blogPost)).thenReturn(new BlogPostDto());
+        when(blogPostRepository.saveAndFlush(blogPost)).thenReturn(blogPost);
+        when(blogPostMapper.toDtoWithoutContent(blogPost)).thenReturn(new BlogPostDto());
 
         // Act
         BlogPostDto result = blogService.removeTag(blogId, tagName);
 
         // Assert
         assertNotNull(result);
-        verify(blogPostRepository).save(blogPost);
+        assertTrue(blogPost.getTags().isEmpty());
+        verify(blogPostRepository).saveAndFlush(blogPost);
         verify(blogPostRepository).findById(blogId);
     }
 
@@ -243,7 +341,7 @@ class BlogServiceImplTest {
         BlogPostDto result = blogService.updateBlog(blogId, dto);
 
         assertNull(result);
-        verify(blogPostRepository, never()).save(any(BlogPost.class));
+        verify(blogPostRepository, never()).saveAndFlush(any(BlogPost.class));
     }
 
     @Test
@@ -256,7 +354,7 @@ class BlogServiceImplTest {
     @Test
     void getBlog_ShouldReturnNull_WhenBlogDoesNotExist() {
         Long blogId = 1L;
-        when(blogPostRepository.findById(blogId)).thenReturn(Optional.empty());
+        when(blogPostRepository.findWithContentById(blogId)).thenReturn(Optional.empty());
 
         BlogPostDto result = blogService.getBlog(blogId);
 
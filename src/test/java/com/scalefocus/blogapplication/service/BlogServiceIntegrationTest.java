@@ -2,14 +2,34 @@ package com.scalefocus.blogapplication.service;
 
 import com.scalefocus.blogapplication.dto.BlogPostDto;
 import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.BulkItemResultDto;
+import com.scalefocus.blogapplication.dto.BulkResultDto;
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.model.BlogPost;
+import com.scalefocus.blogapplication.model.Tag;
 import com.scalefocus.blogapplication.repository.BlogPostRepository;
+import com.scalefocus.blogapplication.repository.TagRepository;
+import com.scalefocus.blogapplication.support.SqlAssertions;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-import static com.scalefocus.blogapplication.mapper.BlogPostMapper.SUMMARY_LENGTH;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -23,6 +43,24 @@ class BlogServiceIntegrationTest {
     @Autowired
     private BlogPostRepository blogPostRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     void testCreateAndRetrieveBlog() {
         // Create a blog post
@@ -141,10 +179,226 @@ class BlogServiceIntegrationTest {
         BlogPostDto createdBlog = blogService.createBlog(newBlog);
 
         // Retrieve summarized blogs
-        BlogPostSummaryDto summarizedBlog = blogService.getSummarizedBlogs().get(0);
+        BlogPostSummaryDto summarizedBlog = blogService.getSummarizedBlogs(null, null).getItems().get(0);
 
         assertNotNull(summarizedBlog);
         assertEquals("Summarized Blog", summarizedBlog.getTitle());
-        assertEquals("Content for summarized blog.".substring(0, SUMMARY_LENGTH), summarizedBlog.getSummary());
+        assertEquals("Content for summarized blog.", summarizedBlog.getSummary());
+    }
+
+    @Test
+    void testListQueriesRunFixedNumberOfStatements() {
+        Set<TagDto> tags = Set.of(TagDto.builder().name("Fetch").build(), TagDto.builder().name("Plan").build());
+        for (int i = 0; i < 10; i++) {
+            blogService.createBlog(BlogPostDto.builder().title("Fetch plan " + i).content("Content " + i).tags(tags).build());
+        }
+
+        assertEquals(2, countStatements(() -> blogService.getBlogs(null, 3)));
+        assertEquals(2, countStatements(() -> blogService.getBlogs(null, 10)));
+        assertEquals(1, countStatements(() -> blogService.getBlogsByTag("Fetch")));
+        assertEquals(1, countStatements(() -> blogService.getSummarizedBlogs(null, 10)));
+    }
+
+    @Test
+    void testVersionCheckRunsOneStatement() {
+        Long id = blogService.createBlog(BlogPostDto.builder().title("Versioned").content("Content").build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        SqlAssertions.assertStatements(1, () -> blogService.getBlogVersion(id));
+    }
+
+    @Test
+    void testGetBlogsByTagReturnsFullTagSet() {
+        Set<TagDto> tags = Set.of(TagDto.builder().name("Java").build(), TagDto.builder().name("Performance").build());
+        blogService.createBlog(BlogPostDto.builder().title("Tagged twice").content("Content").tags(tags).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BlogPostDto> blogs = blogService.getBlogsByTag("Java");
+
+        assertEquals(1, blogs.size());
+        assertEquals(Set.of("Java", "Performance"),
+                blogs.get(0).getTags().stream().map(TagDto::getName).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testGetSummarizedBlogsDoesNotLoadEntities() {
+        blogService.createBlog(BlogPostDto.builder().title("Projected").content("x".repeat(200)).build());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BlogPostSummaryDto> summaries = new ArrayList<>();
+        Set<String> statements = SqlAssertions.count(() -> summaries.addAll(blogService.getSummarizedBlogs(null, 100).getItems()))
+                .getDistinctStatements();
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(statements.stream().noneMatch(sql -> sql.contains("content")), () -> "Summary list read content: " + statements);
+        BlogPostSummaryDto projected = summaries.stream().filter(blog -> blog.getTitle().equals("Projected")).findFirst().orElseThrow();
+        assertEquals("x".repeat(99) + "…", projected.getSummary());
+    }
+
+    @Test
+    void testTagChangesAndDeleteDoNotReadContent() {
+        String content = "Large body. ".repeat(30_000);
+        BlogPostDto created = blogService.createBlog(BlogPostDto.builder().title("Large").content(content).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Set<String> statements = new HashSet<>();
+        statements.addAll(SqlAssertions.count(() -> blogService.addTagByName(created.getId(), "Lazy Tag")).getDistinctStatements());
+        entityManager.clear();
+        statements.addAll(SqlAssertions.count(() -> blogService.removeTag(created.getId(), "Lazy Tag")).getDistinctStatements());
+        entityManager.clear();
+        assertEquals(content, blogService.getBlog(created.getId()).getContent());
+        entityManager.clear();
+        statements.addAll(SqlAssertions.count(() -> {
+            blogService.deleteBlog(created.getId());
+            entityManager.flush();
+        }).getDistinctStatements());
+
+        assertTrue(statements.stream().noneMatch(sql -> sql.contains("content")), () -> "Content was read: " + statements);
+    }
+
+    @Test
+    void testVersionChecksDoNotLoadEntities() {
+        BlogPostDto created = blogService.createBlog(BlogPostDto.builder().title("Versioned").content("Version check.").build());
+        blogService.addTagByName(created.getId(), "Version Tag");
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Long version = blogService.getBlogVersion(created.getId());
+        blogService.getBlogVersions(null, 100);
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(created.getVersion() + 1, version);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testTagLookupsAreServedFromCacheAfterCreate() {
+        TagDto created = tagService.createTag(TagDto.builder().name("Cached Tag").build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "tags").tag("result", "hit").functionCounter().count();
+
+        TagDto found = tagService.getTagByName("Cached Tag");
+
+        assertEquals(created.getId(), found.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(hitsBefore + 1,
+                meterRegistry.get("cache.gets").tag("cache", "tags").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testCreateBlogsBatchesInserts() {
+        List<BlogPostDto> blogs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            blogs.add(BlogPostDto.builder().title("Bulk " + i).content("Bulk content " + i)
+                    .tags(Set.of(TagDto.builder().name("Bulk").build())).build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkResultDto result = blogService.createBlogs(blogs.iterator());
+
+        assertEquals(200, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getItems().stream().allMatch(item -> item.getId() != null));
+        // 200 posts and 200 join rows in batches of 50, plus tag resolution and a few sequence calls
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Expected batched inserts but saw " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void testCreateBlogsReportsInvalidItems() {
+        List<BlogPostDto> blogs = List.of(
+                BlogPostDto.builder().title("Valid bulk blog").content("Content").build(),
+                BlogPostDto.builder().title("Missing content").build());
+
+        BulkResultDto result = blogService.createBlogs(blogs.iterator());
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(BulkItemResultDto.Status.FAILED, result.getItems().get(1).getStatus());
+        assertEquals(1, result.getItems().get(1).getIndex());
+    }
+
+    @Test
+    void testCreateBlogStatementCountDoesNotGrowWithTagCount() {
+        Set<TagDto> twoTags = tags("Scale", 2);
+        Set<TagDto> eightTags = tags("Scale", 8);
+        blogService.createBlog(BlogPostDto.builder().title("Tag warm up").content("Content").tags(eightTags).build());
+
+        long withTwoTags = countStatements(() -> blogService.createBlog(
+                BlogPostDto.builder().title("Two tags").content("Content").tags(twoTags).build()));
+        long withEightTags = countStatements(() -> blogService.createBlog(
+                BlogPostDto.builder().title("Eight tags").content("Content").tags(eightTags).build()));
+
+        // allow for one extra round trip when the pooled id sequence is advanced
+        assertTrue(withEightTags <= withTwoTags + 1,
+                "Two tags took " + withTwoTags + " statements but eight tags took " + withEightTags);
+    }
+
+    private static Set<TagDto> tags(String prefix, int count) {
+        Set<TagDto> tags = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            tags.add(TagDto.builder().name(prefix + " " + i).build());
+        }
+        return tags;
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testRepeatReadsOfPostTagsAreServedFromSecondLevelCache() {
+        BlogPostDto created = blogService.createBlog(BlogPostDto.builder().title("L2 Cached Blog").content("Second level.")
+                .tags(tags("L2 Tag", 3)).build());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> blogService.getBlog(created.getId()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try {
+            BlogPostDto blog = transaction.execute(status -> blogService.getBlog(created.getId()));
+
+            // Only the post row itself is read, its tag collection and the tags come from the cache
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(3, blog.getTags().size());
+            assertEquals(1, statistics.getCacheRegionStatistics(BlogPost.TAGS_CACHE_REGION).getHitCount());
+            assertEquals(3, statistics.getCacheRegionStatistics(Tag.CACHE_REGION).getHitCount());
+        } finally {
+            // committed outside the test transaction, keep it out of the other tests' listings
+            blogService.deleteBlog(created.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testRepeatTagLookupsByNameCauseNoSql() {
+        tagService.createTag(TagDto.builder().name("L2 Query Tag").build());
+        Long id = tagRepository.findByName("L2 Query Tag").orElseThrow().getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Tag byName = tagRepository.findByName("L2 Query Tag").orElseThrow();
+        Tag byId = tagRepository.findById(id).orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(id, byName.getId());
+        assertEquals("L2 Query Tag", byId.getName());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", Tag.CACHE_REGION).tag("result", "hit").functionCounter().count() >= 1);
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        return SqlAssertions.count(action).getStatements();
     }
 }
@@ -0,0 +1,46 @@
+package com.scalefocus.blogapplication.service;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class SummaryBackfillTest {
+
+    @Autowired
+    private SummaryBackfill summaryBackfill;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testBackfillSummarizesOnlyPostsWithoutSummary() {
+        BlogPostDto created = blogService.createBlog(BlogPostDto.builder().title("Written with summary").content("Already summarized.").build());
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE blog_posts SET summary = ? WHERE id = ?", "kept", created.getId());
+        jdbcTemplate.update("INSERT INTO blog_posts (id, version, title, content) VALUES (?, 0, ?, ?)",
+                1_000_000L, "Legacy post", "Legacy   content\nwritten before summaries.");
+
+        assertEquals(1, summaryBackfill.backfill());
+
+        assertEquals("Legacy content written before summaries.",
+                jdbcTemplate.queryForObject("SELECT summary FROM blog_posts WHERE id = 1000000", String.class));
+        assertEquals("kept", jdbcTemplate.queryForObject("SELECT summary FROM blog_posts WHERE id = ?", String.class, created.getId()));
+        assertEquals(0, summaryBackfill.backfill());
+    }
+}
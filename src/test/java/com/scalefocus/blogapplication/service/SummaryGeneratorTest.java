@@ -0,0 +1,65 @@
+package com.scalefocus.blogapplication.service;
+
+import com.scalefocus.blogapplication.config.SummaryProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SummaryGeneratorTest {
+
+    private static SummaryGenerator generator(int length, SummaryProperties.Strategy strategy) {
+        SummaryProperties properties = new SummaryProperties();
+        properties.setLength(length);
+        properties.setStrategy(strategy);
+        return new SummaryGenerator(properties);
+    }
+
+    @Test
+    void testShortContentIsKeptWhole() {
+        assertEquals("Short post.", generator(20, SummaryProperties.Strategy.WORD).summarize("Short post."));
+        assertNull(generator(20, SummaryProperties.Strategy.WORD).summarize(null));
+    }
+
+    @Test
+    void testWordStrategyCutsAtLastWordBoundary() {
+        String summary = generator(20, SummaryProperties.Strategy.WORD).summarize("The quick brown fox jumps over the lazy dog");
+
+        assertEquals("The quick brown fox…", summary);
+        assertTrue(summary.length() <= 20);
+    }
+
+    @Test
+    void testWordStrategyFallsBackToHardCutForSingleLongWord() {
+        assertEquals("x".repeat(9) + "…", generator(10, SummaryProperties.Strategy.WORD).summarize("x".repeat(50)));
+    }
+
+    @Test
+    void testCharacterStrategyCutsAtLength() {
+        assertEquals("The quick brown fox…", generator(20, SummaryProperties.Strategy.CHARACTER)
+                .summarize("The quick brown fox jumps over the lazy dog"));
+        assertEquals("The quick b…", generator(12, SummaryProperties.Strategy.CHARACTER)
+                .summarize("The quick brown fox"));
+    }
+
+    @Test
+    void testWhitespaceIsCollapsed() {
+        assertEquals("Line one line two", generator(50, SummaryProperties.Strategy.WORD)
+                .summarize("  Line one\n\n\tline   two  "));
+    }
+
+    @Test
+    void testCutDoesNotSplitSurrogatePair() {
+        // The emoji is two chars; a hard cut after 9 chars would land between them
+        String summary = generator(10, SummaryProperties.Strategy.CHARACTER).summarize("abcdefgh😀tail text");
+
+        assertEquals("abcdefgh…", summary);
+    }
+
+    @Test
+    void testRejectsLengthBeyondColumn() {
+        SummaryProperties properties = new SummaryProperties();
+        properties.setLength(1000);
+
+        assertThrows(IllegalStateException.class, () -> new SummaryGenerator(properties));
+    }
+}
@@ -0,0 +1,44 @@
+package com.scalefocus.blogapplication.service;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BulkResultDto;
+import com.scalefocus.blogapplication.dto.TagDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs on a pool of a single connection, so any write that needs a second connection while its
+ * transaction holds the first times out.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tag-creation;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@ActiveProfiles("test")
+class TagCreationConnectionTest {
+
+    @Autowired
+    private BlogService blogService;
+
+    @Test
+    void testNewTagsAreCreatedWithOneConnection() {
+        BlogPostDto created = blogService.createBlog(BlogPostDto.builder().title("Single connection").content("Content.")
+                .tags(Set.of(TagDto.builder().name("First new tag").build())).build());
+        assertEquals(1, created.getTags().size());
+
+        BlogPostDto tagged = blogService.addTagByName(created.getId(), "Second new tag");
+        assertEquals(2, tagged.getTags().size());
+
+        BulkResultDto imported = blogService.createBlogs(List.of(BlogPostDto.builder().title("Imported").content("Content.")
+                .tags(Set.of(TagDto.builder().name("Third new tag").build())).build()).iterator());
+        assertEquals(1, imported.getCreated());
+    }
+}
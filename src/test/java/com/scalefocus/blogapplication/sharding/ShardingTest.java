@@ -0,0 +1,171 @@
+package com.scalefocus.blogapplication.sharding;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.dto.BlogPostSummaryDto;
+import com.scalefocus.blogapplication.dto.CursorPage;
+import com.scalefocus.blogapplication.dto.TagDto;
+import com.scalefocus.blogapplication.service.BlogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three shards, each a separate H2 database. Row counts are read from the shards directly to see where
+ * posts actually went.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.sharding.enabled=true",
+        "blog.sharding.buckets=8",
+        "blog.sharding.initialize-schema=true",
+        "blog.sharding.shards[0].url=jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.sharding.shards[0].username=sa",
+        "blog.sharding.shards[0].password=password",
+        "blog.sharding.shards[1].url=jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.sharding.shards[1].username=sa",
+        "blog.sharding.shards[1].password=password"
+})
+@ActiveProfiles("test")
+class ShardingTest {
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private ShardDataSources shards;
+
+    @Autowired
+    private ShardMap shardMap;
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @Test
+    void testPostsAreSpreadOverShardsAndReadBackInIdOrder() {
+        List<Long> ids = createPosts("spread", 12);
+
+        for (int shard = 0; shard < shards.count(); shard++) {
+            assertTrue(postsTagged(shard, "spread") > 0, "No posts on shard " + shard);
+        }
+        assertEquals(12, ids.stream().mapToInt(id -> postsWithId(shardMap.shardOf(id), id)).sum());
+
+        assertEquals(ids, blogService.getBlogsByTag("spread").stream().map(BlogPostDto::getId).toList());
+        assertEquals(ids, blogService.queryBlogsByTags("spread", null, 100).getItems().stream()
+                .map(BlogPostDto::getId).toList());
+
+        List<Long> paged = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<BlogPostSummaryDto> page = blogService.getSummarizedBlogs(after, 5);
+            page.getItems().forEach(summary -> paged.add(summary.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+        assertEquals(paged.stream().sorted().distinct().toList(), paged);
+        assertTrue(paged.containsAll(ids));
+    }
+
+    @Test
+    void testTagsHaveTheSameIdOnEveryShard() {
+        createPosts("replicated", 1);
+
+        Long id = shard(0).queryForObject("SELECT id FROM tags WHERE name = ?", Long.class, "replicated");
+        for (int shard = 1; shard < shards.count(); shard++) {
+            assertEquals(id, shard(shard).queryForObject("SELECT id FROM tags WHERE name = ?", Long.class, "replicated"));
+        }
+    }
+
+    @Test
+    void testUpdatesAndDeletesGoToTheOwningShard() {
+        List<Long> ids = createPosts("owned", 2);
+
+        BlogPostDto updated = blogService.updateBlog(ids.get(0), BlogPostDto.builder().title("Updated").content("Updated.").build());
+        assertEquals("Updated.", updated.getContent());
+        assertEquals("Updated", shard(shardMap.shardOf(ids.get(0)))
+                .queryForObject("SELECT title FROM blog_posts WHERE id = ?", String.class, ids.get(0)));
+
+        blogService.deleteBlog(ids.get(1));
+        assertNull(blogService.getBlogVersion(ids.get(1)));
+        assertEquals(0, postsWithId(shardMap.shardOf(ids.get(1)), ids.get(1)));
+    }
+
+    @Test
+    void testTitlesAreUniqueAcrossShards() {
+        Long first = blogService.createBlog(post("Unique across shards")).getId();
+        Long other = null;
+        for (int i = 0; other == null || shardMap.shardOf(other) == shardMap.shardOf(first); i++) {
+            other = blogService.createBlog(post("Other shard " + i)).getId();
+        }
+        Long onOtherShard = other;
+
+        assertThrows(DataIntegrityViolationException.class, () -> blogService.updateBlog(onOtherShard,
+                BlogPostDto.builder().title("Unique across shards").content("Duplicate.").build()));
+        for (int i = 0; i < shards.count(); i++) {
+            assertThrows(DataIntegrityViolationException.class, () -> blogService.createBlog(post("Unique across shards")));
+        }
+        int copies = 0;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            copies += shard(shard).queryForObject("SELECT COUNT(*) FROM blog_posts WHERE title = ?", Integer.class,
+                    "Unique across shards");
+        }
+        assertEquals(1, copies);
+
+        blogService.deleteBlog(first);
+        assertEquals("Unique across shards", blogService.updateBlog(onOtherShard,
+                BlogPostDto.builder().title("Unique across shards").content("Renamed.").build()).getTitle());
+    }
+
+    @Test
+    void testMovedBucketStaysReadable() {
+        Long id = createPosts("moved", 1).get(0);
+        int bucket = shardMap.bucketOf(id);
+        int source = shardMap.shardOf(id);
+        int target = (source + 1) % shards.count();
+
+        assertTrue(rebalancer.moveBucket(bucket, target) >= 1);
+
+        assertEquals(target, shardMap.shardOf(id));
+        assertEquals(0, postsWithId(source, id));
+        assertEquals(1, postsWithId(target, id));
+        assertEquals(1, postsTagged(target, "moved"));
+        assertNotNull(blogService.getBlogVersion(id));
+        assertEquals(List.of(id), blogService.getBlogsByTag("moved").stream().map(BlogPostDto::getId).toList());
+    }
+
+    private List<Long> createPosts(String tag, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(blogService.createBlog(BlogPostDto.builder()
+                    .title(tag + " " + i)
+                    .content("Post " + i + " tagged " + tag + ".")
+                    .tags(Set.of(TagDto.builder().name(tag).build()))
+                    .build()).getId());
+        }
+        return ids;
+    }
+
+    private static BlogPostDto post(String title) {
+        return BlogPostDto.builder().title(title).content("Content of " + title + ".").build();
+    }
+
+    private JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(shards.get(shard));
+    }
+
+    private int postsWithId(int shard, long id) {
+        return shard(shard).queryForObject("SELECT COUNT(*) FROM blog_posts WHERE id = ?", Integer.class, id);
+    }
+
+    private int postsTagged(int shard, String tag) {
+        return shard(shard).queryForObject("SELECT COUNT(*) FROM blog_post_tags pt JOIN tags t ON t.id = pt.tag_id "
+                + "WHERE t.name = ?", Integer.class, tag);
+    }
+}
@@ -0,0 +1,80 @@
+package com.scalefocus.blogapplication.storage;
+
+import com.scalefocus.blogapplication.config.ContentCompressionProperties;
+import com.scalefocus.blogapplication.config.ContentLogProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCodecTest {
+
+    private static final String LONG_TEXT = "Posts repeat themselves a lot, which compresses well. ".repeat(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ContentCodec codec(boolean enabled, ContentCompressionProperties.Algorithm algorithm) {
+        ContentCompressionProperties properties = new ContentCompressionProperties();
+        properties.setEnabled(enabled);
+        properties.setAlgorithm(algorithm);
+        properties.setThreshold(256);
+        return new ContentCodec(properties, new ContentLog(new ContentLogProperties()), meterRegistry);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ContentCompressionProperties.Algorithm.class)
+    void testLargeContentRoundTripsCompressed(ContentCompressionProperties.Algorithm algorithm) {
+        ContentCodec codec = codec(true, algorithm);
+
+        String stored = codec.encode(LONG_TEXT + "ünïcödé 😀");
+
+        assertTrue(ContentCodec.isEncoded(stored));
+        assertTrue(stored.length() < LONG_TEXT.length() / 5, () -> "Stored " + stored.length() + " chars");
+        assertEquals(LONG_TEXT + "ünïcödé 😀", codec.decode(stored));
+        assertEquals(1, meterRegistry.get(ContentCodec.RATIO_METRIC).tag("algorithm", algorithm.name().toLowerCase()).summary().count());
+        assertEquals(1, meterRegistry.get(ContentCodec.DECODE_METRIC).tag("algorithm", algorithm.name().toLowerCase()).timer().count());
+    }
+
+    @Test
+    void testShortOrDisabledContentStaysRaw() {
+        assertEquals("Short post.", codec(true, ContentCompressionProperties.Algorithm.DEFLATE).encode("Short post."));
+        assertEquals(LONG_TEXT, codec(false, ContentCompressionProperties.Algorithm.DEFLATE).encode(LONG_TEXT));
+        assertNull(codec(true, ContentCompressionProperties.Algorithm.DEFLATE).encode(null));
+    }
+
+    @Test
+    void testRawValuesAreReadUnchanged() {
+        ContentCodec codec = codec(true, ContentCompressionProperties.Algorithm.GZIP);
+
+        assertEquals(LONG_TEXT, codec.decode(LONG_TEXT));
+        assertNull(codec.decode(null));
+    }
+
+    @Test
+    void testValuesWrittenWithAnotherAlgorithmStayReadable() {
+        String stored = codec(true, ContentCompressionProperties.Algorithm.GZIP).encode(LONG_TEXT);
+
+        assertEquals(LONG_TEXT, codec(false, ContentCompressionProperties.Algorithm.DEFLATE).decode(stored));
+    }
+
+    @Test
+    void testTextStartingWithThePrefixIsAlwaysEncoded() {
+        ContentCodec codec = codec(false, ContentCompressionProperties.Algorithm.DEFLATE);
+        String tricky = ContentCodec.PREFIX + "deflate:not base64";
+
+        String stored = codec.encode(tricky);
+
+        assertNotEquals(tricky, stored);
+        assertEquals(tricky, codec.decode(stored));
+    }
+
+    @Test
+    void testRejectsInvalidLevel() {
+        ContentCompressionProperties properties = new ContentCompressionProperties();
+        properties.setLevel(12);
+
+        assertThrows(IllegalStateException.class, () -> new ContentCodec(properties, new ContentLog(new ContentLogProperties()), meterRegistry));
+    }
+}
@@ -0,0 +1,66 @@
+package com.scalefocus.blogapplication.storage;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.service.BlogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:compression;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.content.compression.enabled=true",
+        "blog.content.compression.threshold=64"
+})
+@ActiveProfiles("test")
+class ContentCompressionMigrationTest {
+
+    private static final String CONTENT = "A long post body that repeats. ".repeat(50);
+
+    @Autowired
+    private ContentCompressionMigration migration;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testNewPostsAreStoredCompressedAndExistingOnesAreMigrated() {
+        BlogPostDto created = blogService.createBlog(BlogPostDto.builder().title("Compressed on write").content(CONTENT).build());
+        jdbcTemplate.update("INSERT INTO blog_posts (id, version, title, content) VALUES (?, 3, ?, ?)",
+                1_000_000L, "Stored before compression", CONTENT);
+        jdbcTemplate.update("INSERT INTO blog_posts (id, version, title, content) VALUES (?, 0, ?, ?)",
+                1_000_001L, "Too short to compress", "Short.");
+        assertTrue(ContentCodec.isEncoded(stored(created.getId())));
+        assertEquals(CONTENT, content(1_000_000L));
+
+        ContentCompressionMigration.Result result = migration.migrate();
+
+        assertEquals(1, result.posts());
+        assertTrue(result.ratio() > 5, () -> "Ratio " + result.ratio());
+        assertTrue(ContentCodec.isEncoded(stored(1_000_000L)));
+        assertEquals("Short.", stored(1_000_001L));
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT version FROM blog_posts WHERE id = 1000000", Long.class));
+        assertEquals(CONTENT, content(1_000_000L));
+        assertEquals(CONTENT, content(created.getId()));
+        assertEquals(0, migration.migrate().posts());
+    }
+
+    private String content(Long id) {
+        return new TransactionTemplate(transactionManager).execute(status -> blogService.getBlog(id).getContent());
+    }
+
+    private String stored(Long id) {
+        return jdbcTemplate.queryForObject("SELECT content FROM blog_posts WHERE id = ?", String.class, id);
+    }
+}
@@ -0,0 +1,118 @@
+package com.scalefocus.blogapplication.storage;
+
+import com.scalefocus.blogapplication.dto.BlogPostDto;
+import com.scalefocus.blogapplication.service.BlogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Segments of 1 KB hold three posts each, so a few updates leave a sealed segment that is mostly garbage.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:content-log;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "blog.content.log.enabled=true",
+        "blog.content.log.threshold=64",
+        "blog.content.log.segment-size=1KB",
+        "blog.content.log.compaction.interval=0s",
+        "blog.content.log.compaction.grace-period=0s",
+        "blog.content.log.compaction.batch-size=2"
+})
+@ActiveProfiles("test")
+class ContentLogCompactorTest {
+
+    private static Path directory;
+
+    @Autowired
+    private ContentLogCompactor compactor;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void contentLogDirectory(DynamicPropertyRegistry registry) throws IOException {
+        directory = Files.createTempDirectory("content-log");
+        registry.add("blog.content.log.directory", directory::toString);
+    }
+
+    @Test
+    void testMostlyGarbageSegmentIsCompactedAndDeleted() {
+        Long first = create("First");
+        Long second = create("Second");
+        Long third = create("Third");
+        assertTrue(ContentReference.isReference(stored(third)));
+        int segment = ContentReference.parse(stored(third)).segment();
+        blogService.updateBlog(first, BlogPostDto.builder().title("First").content(content("First, edited")).build());
+        blogService.updateBlog(second, BlogPostDto.builder().title("Second").content(content("Second, edited")).build());
+        blogService.deleteBlog(first);
+
+        ContentLogCompactor.Result compacted = compactor.compact();
+
+        assertTrue(compacted.retired().contains(segment), () -> "Retired " + compacted.retired());
+        assertNotEquals(segment, ContentReference.parse(stored(third)).segment());
+        assertTrue(compactor.compact().deleted().contains(segment));
+        assertFalse(Files.exists(directory.resolve(String.format("segment-%010d.log", segment))));
+
+        assertEquals(content("Third"), blogService.getBlog(third).getContent());
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/blogs/{id}/content", String.class, third);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.TEXT_PLAIN.isCompatibleWith(response.getHeaders().getContentType()));
+        assertEquals(content("Third"), response.getBody());
+        assertEquals(content("Second, edited"),
+                restTemplate.getForObject("/api/blogs/{id}/content", String.class, second));
+        assertEquals(HttpStatus.NOT_FOUND,
+                restTemplate.getForEntity("/api/blogs/{id}/content", String.class, first).getStatusCode());
+    }
+
+    @Test
+    void testRetiredSegmentReferencedAgainIsNotDeleted() {
+        Long first = create("Fourth");
+        Long second = create("Fifth");
+        Long third = create("Sixth");
+        String reference = stored(third);
+        int segment = ContentReference.parse(reference).segment();
+        blogService.updateBlog(first, BlogPostDto.builder().title("Fourth").content(content("Fourth, edited")).build());
+        blogService.updateBlog(second, BlogPostDto.builder().title("Fifth").content(content("Fifth, edited")).build());
+        blogService.deleteBlog(first);
+        assertTrue(compactor.compact().retired().contains(segment));
+
+        // a write that read the post before its content was moved stores the old reference again
+        jdbcTemplate.update("UPDATE blog_posts SET content = ? WHERE id = ?", reference, third);
+
+        assertFalse(compactor.compact().deleted().contains(segment));
+        assertTrue(Files.exists(directory.resolve(String.format("segment-%010d.log", segment))));
+        assertEquals(content("Sixth"), restTemplate.getForObject("/api/blogs/{id}/content", String.class, third));
+    }
+
+    private Long create(String title) {
+        return blogService.createBlog(BlogPostDto.builder().title(title).content(content(title)).build()).getId();
+    }
+
+    private static String content(String title) {
+        return (title + " is long enough to leave the row. ").repeat(8);
+    }
+
+    private String stored(Long id) {
+        return jdbcTemplate.queryForObject("SELECT content FROM blog_posts WHERE id = ?", String.class, id);
+    }
+}
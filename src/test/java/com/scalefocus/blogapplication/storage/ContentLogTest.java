@@ -0,0 +1,86 @@
+package com.scalefocus.blogapplication.storage;
+
+import com.scalefocus.blogapplication.config.ContentLogProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentLogTest {
+
+    @TempDir
+    private Path directory;
+
+    private ContentLog open() {
+        ContentLogProperties properties = new ContentLogProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofBytes(128));
+        return new ContentLog(properties);
+    }
+
+    @Test
+    void testAppendedContentReadsBackThroughItsReference() throws IOException {
+        ContentLog log = open();
+
+        ContentReference first = log.append(bytes("First post ünïcödé."));
+        ContentReference second = log.append(bytes("Second post."));
+
+        assertEquals(first, ContentReference.parse(first.toString()));
+        assertEquals("First post ünïcödé.", log.readString(ContentReference.parse(first.toString())));
+        assertEquals("Second post.", log.readString(second));
+        assertTrue(log.read(second).isReadOnly());
+        assertThrows(IllegalStateException.class, () -> log.read(new ContentReference(first.segment(),
+                first.offset(), first.length(), first.checksum() + 1)));
+        log.destroy();
+    }
+
+    @Test
+    void testFullSegmentIsSealedAndOversizedContentGetsASegmentOfItsOwn() throws IOException {
+        ContentLog log = open();
+
+        ContentReference first = log.append(bytes("x".repeat(80)));
+        ContentReference second = log.append(bytes("y".repeat(80)));
+        ContentReference oversized = log.append(bytes("z".repeat(300)));
+
+        assertEquals(first.segment() + 1, second.segment());
+        assertEquals(second.segment() + 1, oversized.segment());
+        assertEquals("z".repeat(300), log.readString(oversized));
+        assertEquals(Map.of(first.segment(), 92, second.segment(), 92), log.sealedSegments());
+        log.destroy();
+    }
+
+    @Test
+    void testTornRecordIsClearedOnRestart() throws IOException {
+        ContentLog log = open();
+        ContentReference kept = log.append(bytes("Committed post."));
+        log.destroy();
+        int tornOffset = ContentLog.HEADER + kept.length();
+        try (FileChannel segment = FileChannel.open(directory.resolve("segment-0000000001.log"), StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(ContentLog.HEADER).putInt(0x424C4F47).putInt(40).putInt(7).flip();
+            segment.write(header, tornOffset);
+        }
+
+        ContentLog reopened = open();
+
+        assertEquals("Committed post.", reopened.readString(kept));
+        ContentReference next = reopened.append(bytes("Written after the restart."));
+        assertEquals(kept.segment(), next.segment());
+        assertEquals(tornOffset, next.offset());
+        assertEquals("Written after the restart.", reopened.readString(next));
+        reopened.destroy();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
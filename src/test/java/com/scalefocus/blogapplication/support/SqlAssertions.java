@@ -0,0 +1,47 @@
+package com.scalefocus.blogapplication.support;
+
+import com.scalefocus.blogapplication.monitoring.SqlCountHeadersAdvice;
+import com.scalefocus.blogapplication.monitoring.SqlCounter;
+import com.scalefocus.blogapplication.monitoring.SqlCounts;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Pins the amount of database work done by a service call or an API request, so that an added lazy
+ * association or a dropped fetch join shows up as a failing test.
+ */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    public static SqlCounts count(Runnable action) {
+        return SqlCounter.count(action);
+    }
+
+    public static void assertStatements(long expected, Runnable action) {
+        SqlCounts counts = count(action);
+        assertEquals(expected, counts.getStatements(), () -> "Unexpected SQL statement count: " + counts);
+    }
+
+    /**
+     * Checks the counts reported by the server; requires {@code blog.sql-budget.expose-headers}.
+     */
+    public static void assertStatements(long expected, ResponseEntity<?> response) {
+        assertEquals(expected, header(response, SqlCountHeadersAdvice.STATEMENTS_HEADER),
+                () -> "Unexpected SQL statement count for response " + response.getHeaders());
+    }
+
+    public static void assertNoCollectionInitializations(ResponseEntity<?> response) {
+        assertEquals(0, header(response, SqlCountHeadersAdvice.COLLECTION_INITIALIZATIONS_HEADER),
+                () -> "Lazy collections were initialized for response " + response.getHeaders());
+    }
+
+    private static long header(ResponseEntity<?> response, String name) {
+        String value = response.getHeaders().getFirst(name);
+        assertNotNull(value, () -> name + " header missing");
+        return Long.parseLong(value);
+    }
+}